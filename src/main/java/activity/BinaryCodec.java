@@ -0,0 +1,234 @@
+package activity;
+
+import activity.FlightBookingSystem.BookingResult;
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.Transaction;
+import activity.SmartEnergyManagementSystem.DeviceSchedule;
+import activity.SmartEnergyManagementSystem.EnergyManagementResult;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixed-layout binary encoding of the engines' inputs and results, read and written directly on a
+ * {@link ByteBuffer} (heap or direct) at its current position, in the buffer's byte order.
+ *
+ * <p>Layouts:
+ * <ul>
+ *   <li>BookingResult: flags byte (confirmation, pointsUsed), totalPrice double, refundAmount double</li>
+ *   <li>FraudCheckResult: flags byte (isFraudulent, isBlocked, verificationRequired, degraded),
+ *       riskScore int</li>
+ *   <li>EnergyManagementResult: flags byte (energySavingMode, temperatureRegulationActive),
+ *       totalEnergyUsed double, device count int, then per device a string and a status byte</li>
+ *   <li>Transaction: amount double, timestamp, location string</li>
+ *   <li>DeviceSchedule: deviceName string, scheduledTime</li>
+ * </ul>
+ * Strings are a char count int ({@code -1} for null) followed by UTF-16 chars; timestamps are UTC epoch
+ * seconds as a long ({@link Long#MIN_VALUE} for null) followed by the nanos as an int. Device statuses must
+ * not be null.
+ *
+ * <p>Decoded strings are kept in a small per-thread cache, so a value that repeats (device names,
+ * locations) is returned without allocating. A string not in the cache is copied once into a scratch
+ * {@code char[]} and again into the {@link String}; the JDK has no public way to build a String straight
+ * from buffer contents.
+ */
+public final class BinaryCodec {
+    public static final int BOOKING_RESULT_BYTES = 1 + 8 + 8;
+    public static final int FRAUD_RESULT_BYTES = 1 + 4;
+    private static final int TIMESTAMP_BYTES = 8 + 4;
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final int STRING_CACHE_SIZE = 256;
+    private static final ThreadLocal<String[]> STRING_CACHE =
+            ThreadLocal.withInitial(() -> new String[STRING_CACHE_SIZE]);
+
+    private BinaryCodec() {
+    }
+
+    // BookingResult
+
+    public static void writeBookingResult(ByteBuffer buffer, BookingResult result) {
+        buffer.put(flags(result.confirmation, result.pointsUsed, false, false));
+        buffer.putDouble(result.totalPrice);
+        buffer.putDouble(result.refundAmount);
+    }
+
+    public static BookingResult readBookingResult(ByteBuffer buffer) {
+        byte flags = buffer.get();
+        double totalPrice = buffer.getDouble();
+        double refundAmount = buffer.getDouble();
+        return new BookingResult(flag(flags, 0), totalPrice, refundAmount, flag(flags, 1));
+    }
+
+    // FraudCheckResult
+
+    public static void writeFraudCheckResult(ByteBuffer buffer, FraudCheckResult result) {
+        buffer.put(flags(result.isFraudulent, result.isBlocked, result.verificationRequired, result.degraded));
+        buffer.putInt(result.riskScore);
+    }
+
+    public static FraudCheckResult readFraudCheckResult(ByteBuffer buffer) {
+        byte flags = buffer.get();
+        int riskScore = buffer.getInt();
+        return new FraudCheckResult(flag(flags, 0), flag(flags, 1), flag(flags, 2), riskScore, flag(flags, 3));
+    }
+
+    // EnergyManagementResult
+
+    public static int sizeOf(EnergyManagementResult result) {
+        int size = 1 + 8 + 4;
+        for (String device : result.deviceStatus.keySet()) {
+            size += sizeOf(device) + 1;
+        }
+        return size;
+    }
+
+    public static void writeEnergyManagementResult(ByteBuffer buffer, EnergyManagementResult result) {
+        buffer.put(flags(result.energySavingMode, result.temperatureRegulationActive, false, false));
+        buffer.putDouble(result.totalEnergyUsed);
+        buffer.putInt(result.deviceStatus.size());
+        for (Map.Entry<String, Boolean> entry : result.deviceStatus.entrySet()) {
+            Boolean on = entry.getValue();
+            if (on == null) {
+                throw new IllegalArgumentException("Device " + entry.getKey() + " has no status");
+            }
+            writeString(buffer, entry.getKey());
+            buffer.put((byte) (on ? 1 : 0));
+        }
+    }
+
+    public static EnergyManagementResult readEnergyManagementResult(ByteBuffer buffer) {
+        byte flags = buffer.get();
+        double totalEnergyUsed = buffer.getDouble();
+        int devices = buffer.getInt();
+        Map<String, Boolean> deviceStatus = new HashMap<>(Math.max(16, devices * 4 / 3 + 1));
+        for (int i = 0; i < devices; i++) {
+            String device = readString(buffer);
+            deviceStatus.put(device, buffer.get() != 0);
+        }
+        return new EnergyManagementResult(deviceStatus, flag(flags, 0), flag(flags, 1), totalEnergyUsed);
+    }
+
+    // Transaction
+
+    public static int sizeOf(Transaction transaction) {
+        return 8 + TIMESTAMP_BYTES + sizeOf(transaction.location);
+    }
+
+    public static void writeTransaction(ByteBuffer buffer, Transaction transaction) {
+        buffer.putDouble(transaction.amount);
+        writeTimestamp(buffer, transaction.timestamp);
+        writeString(buffer, transaction.location);
+    }
+
+    public static Transaction readTransaction(ByteBuffer buffer) {
+        double amount = buffer.getDouble();
+        LocalDateTime timestamp = readTimestamp(buffer);
+        String location = readString(buffer);
+        return new Transaction(amount, timestamp, location);
+    }
+
+    // DeviceSchedule
+
+    public static int sizeOf(DeviceSchedule schedule) {
+        return sizeOf(schedule.deviceName) + TIMESTAMP_BYTES;
+    }
+
+    public static void writeDeviceSchedule(ByteBuffer buffer, DeviceSchedule schedule) {
+        writeString(buffer, schedule.deviceName);
+        writeTimestamp(buffer, schedule.scheduledTime);
+    }
+
+    public static DeviceSchedule readDeviceSchedule(ByteBuffer buffer) {
+        String deviceName = readString(buffer);
+        LocalDateTime scheduledTime = readTimestamp(buffer);
+        return new DeviceSchedule(deviceName, scheduledTime);
+    }
+
+    // Tipos básicos
+
+    private static byte flags(boolean first, boolean second, boolean third, boolean fourth) {
+        return (byte) ((first ? 1 : 0) | (second ? 2 : 0) | (third ? 4 : 0) | (fourth ? 8 : 0));
+    }
+
+    private static boolean flag(byte flags, int bit) {
+        return (flags & (1 << bit)) != 0;
+    }
+
+    static int sizeOf(String value) {
+        return 4 + (value == null ? 0 : value.length() * 2);
+    }
+
+    // Carácter por carácter para no crear arreglos intermedios al escribir
+    static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        int length = value.length();
+        buffer.putInt(length);
+        for (int i = 0; i < length; i++) {
+            buffer.putChar(value.charAt(i));
+        }
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining() / 2) {
+            throw new IllegalArgumentException("String length " + length + " exceeds remaining buffer");
+        }
+
+        // Mismo cálculo que String.hashCode, con lecturas absolutas para no mover la posición
+        int start = buffer.position();
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.getChar(start + 2 * i);
+        }
+        String[] cache = STRING_CACHE.get();
+        int slot = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+        String cached = cache[slot];
+        if (cached != null && cached.length() == length && cached.hashCode() == hash
+                && matches(buffer, start, cached)) {
+            buffer.position(start + 2 * length);
+            return cached;
+        }
+
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar();
+        }
+        String value = new String(chars);
+        cache[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int start, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (buffer.getChar(start + 2 * i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void writeTimestamp(ByteBuffer buffer, LocalDateTime timestamp) {
+        if (timestamp == null) {
+            buffer.putLong(NULL_TIMESTAMP);
+            buffer.putInt(0);
+            return;
+        }
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp.getNano());
+    }
+
+    static LocalDateTime readTimestamp(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nanos = buffer.getInt();
+        return epochSecond == NULL_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,176 @@
+package activity;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loads an engine's rules from a local properties file and publishes a new immutable snapshot every time
+ * the file changes, e.g. {@code new ConfigWatcher<>(path, FraudRules::fromProperties, fraud::updateRules)}.
+ *
+ * <p>The snapshot always follows from the file alone: a key missing from it takes the rule's default. The
+ * snapshot is handed to the engine in a single reference write, so the scoring path never locks. A file
+ * that cannot be read or parsed, or whose values the rules reject, is ignored and the previous snapshot
+ * stays active.
+ *
+ * <p>Files should be replaced atomically: write a temporary file in the same directory and rename it over
+ * the watched one (the rename arrives as {@code ENTRY_CREATE}). As a guard for editors that write in
+ * place, a reload only parses the file once two reads {@value #SETTLE_MILLIS} ms apart return the same
+ * bytes, so a write still in progress is not published half done.
+ */
+public class ConfigWatcher<T> implements AutoCloseable {
+    static final long SETTLE_MILLIS = 50;
+    private static final int MAX_READS = 10;
+
+    private final Path file;
+    private final Function<Properties, T> parser;
+    private final Consumer<T> publisher;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failedReloads = new AtomicLong();
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public ConfigWatcher(Path file, Function<Properties, T> parser, Consumer<T> publisher) {
+        this.file = file.toAbsolutePath();
+        this.parser = parser;
+        this.publisher = publisher;
+    }
+
+    // Carga el archivo una vez y empieza a vigilar su directorio
+    public synchronized void start() throws IOException {
+        if (watchService != null) {
+            throw new IllegalStateException("Watcher already started");
+        }
+        reload();
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        watcherThread = new Thread(this::watch, "config-watcher-" + file.getFileName());
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    public boolean reload() {
+        try {
+            byte[] content = readSettled();
+            if (content == null) {
+                failedReloads.incrementAndGet(); // El archivo siguió cambiando en todas las lecturas
+                return false;
+            }
+            Properties properties = new Properties();
+            properties.load(new StringReader(new String(content, StandardCharsets.UTF_8)));
+            publisher.accept(parser.apply(properties));
+            reloads.incrementAndGet();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            failedReloads.incrementAndGet();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failedReloads.incrementAndGet();
+            return false;
+        }
+    }
+
+    // Lee el archivo hasta que dos lecturas seguidas coinciden; null si nunca se estabiliza
+    private byte[] readSettled() throws IOException, InterruptedException {
+        byte[] previous = Files.readAllBytes(file);
+        for (int read = 1; read < MAX_READS; read++) {
+            Thread.sleep(SETTLE_MILLIS);
+            byte[] content = Files.readAllBytes(file);
+            if (Arrays.equals(previous, content)) {
+                return content;
+            }
+            previous = content;
+        }
+        return null;
+    }
+
+    public long getReloads() {
+        return reloads.get();
+    }
+
+    public long getFailedReloads() {
+        return failedReloads.get();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Cerrado por close()
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watcherThread.interrupt();
+        }
+    }
+
+    // Lectura de propiedades con valores por defecto
+
+    static void check(boolean valid, String message) {
+        if (!valid) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    static double getDouble(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    static int getInt(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    static long getLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    static Set<String> splitList(String value) {
+        Set<String> items = new LinkedHashSet<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,412 @@
+package activity;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Devices of one building grouped by priority and by night-mode exemption when they register, so that
+ * {@link SmartEnergyManagementSystem} can switch a whole group at once instead of visiting every device.
+ *
+ * <p>Registration is versioned instead of copied: every {@link #register} bumps the catalog version, appends
+ * the device to its bucket and only marks the entry it replaces as removed at that version. Bucket arrays
+ * are append-only and a compaction writes a new array, so a status view that captured the version, the
+ * arrays and their lengths keeps seeing exactly the devices of that version. A result already returned by
+ * {@code manageEnergy} therefore never changes when devices are registered later, and a registration costs
+ * amortized constant time.
+ */
+public class DeviceCatalog {
+    private final Set<String> nightModeExemptions;
+    private final Map<String, DeviceEntry> latest = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> bucketOfKey = new HashMap<>();
+    private volatile Bucket[] buckets = new Bucket[0];
+    private volatile long version;
+    private volatile DeviceCatalog rebucketed; // Última copia agrupada con otras exenciones
+    private long sourceVersion; // En una copia, la versión de la que se derivó
+
+    // Una alta de un dispositivo; la reemplaza la siguiente alta del mismo dispositivo
+    private static final class DeviceEntry {
+        final String device;
+        final int bucket;
+        final long addedAt;
+        final DeviceEntry previous;
+        volatile long removedAt = Long.MAX_VALUE;
+
+        DeviceEntry(String device, int bucket, long addedAt, DeviceEntry previous) {
+            this.device = device;
+            this.bucket = bucket;
+            this.addedAt = addedAt;
+            this.previous = previous;
+        }
+
+        boolean isLiveAt(long version) {
+            return addedAt <= version && removedAt > version;
+        }
+    }
+
+    // Grupo de dispositivos; las entradas sólo se añaden al final de entries
+    private static final class Bucket {
+        final int priority;
+        final boolean exempt;
+        volatile DeviceEntry[] entries = new DeviceEntry[4];
+        volatile int length;
+        volatile int live;
+
+        Bucket(int priority, boolean exempt) {
+            this.priority = priority;
+            this.exempt = exempt;
+        }
+
+        void append(DeviceEntry entry) {
+            DeviceEntry[] current = entries;
+            if (length == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[length] = entry;
+            entries = current;
+            length++; // Se publica después de escribir la entrada
+            live++;
+        }
+
+        // Con más de la mitad de entradas retiradas, copia las vivas a un arreglo nuevo; las vistas
+        // existentes conservan el anterior
+        void remove(long latestVersion) {
+            live--;
+            if (live < length / 2) {
+                DeviceEntry[] compacted = new DeviceEntry[Math.max(4, live * 2)];
+                int kept = 0;
+                for (int i = 0; i < length; i++) {
+                    if (entries[i].removedAt > latestVersion) {
+                        compacted[kept++] = entries[i];
+                    }
+                }
+                entries = compacted;
+                length = kept;
+            }
+        }
+    }
+
+    public DeviceCatalog(Set<String> nightModeExemptions) {
+        this.nightModeExemptions = Set.copyOf(nightModeExemptions);
+    }
+
+    public static DeviceCatalog of(Map<String, Integer> devicePriorities, Set<String> nightModeExemptions) {
+        DeviceCatalog catalog = new DeviceCatalog(nightModeExemptions);
+        for (Map.Entry<String, Integer> entry : devicePriorities.entrySet()) {
+            catalog.register(entry.getKey(), entry.getValue());
+        }
+        return catalog;
+    }
+
+    public synchronized void register(String device, int priority) {
+        boolean exempt = nightModeExemptions.contains(device);
+        long key = ((long) priority << 1) | (exempt ? 1 : 0);
+        Integer bucket = bucketOfKey.get(key);
+        DeviceEntry previous = latest.get(device);
+        if (previous != null && bucket != null && previous.bucket == bucket) {
+            return;
+        }
+        if (bucket == null) {
+            bucket = buckets.length;
+            bucketOfKey.put(key, bucket);
+            Bucket[] grown = Arrays.copyOf(buckets, bucket + 1);
+            grown[bucket] = new Bucket(priority, exempt);
+            buckets = grown;
+        }
+
+        long next = version + 1;
+        DeviceEntry entry = new DeviceEntry(device, bucket, next, previous);
+        buckets[bucket].append(entry);
+        if (previous != null) {
+            previous.removedAt = next; // Cambio de prioridad
+            buckets[previous.bucket].remove(next);
+        }
+        latest.put(device, entry);
+        version = next;
+    }
+
+    public int size() {
+        return latest.size();
+    }
+
+    public int bucketCount() {
+        return buckets.length;
+    }
+
+    int priorityOf(int bucket) {
+        return buckets[bucket].priority;
+    }
+
+    boolean isExempt(int bucket) {
+        return buckets[bucket].exempt;
+    }
+
+    List<String> devicesIn(int bucket) {
+        return newStatusView().devicesIn(bucket);
+    }
+
+    int bucketOf(Object device) {
+        DeviceEntry entry = latest.get(device);
+        return entry == null ? -1 : entry.bucket;
+    }
+
+    Set<String> getNightModeExemptions() {
+        return nightModeExemptions;
+    }
+
+    // El mismo catálogo agrupado con otras exenciones; la copia se reutiliza mientras no cambien
+    DeviceCatalog withNightModeExemptions(Set<String> exemptions) {
+        if (exemptions == nightModeExemptions || exemptions.equals(nightModeExemptions)) {
+            return this;
+        }
+        DeviceCatalog copy = rebucketed;
+        if (copy == null || copy.sourceVersion != version || !copy.nightModeExemptions.equals(exemptions)) {
+            synchronized (this) {
+                copy = new DeviceCatalog(exemptions);
+                for (DeviceEntry entry : latest.values()) {
+                    copy.register(entry.device, buckets[entry.bucket].priority);
+                }
+                copy.sourceVersion = version;
+                rebucketed = copy;
+            }
+        }
+        return copy;
+    }
+
+    synchronized StatusView newStatusView() {
+        return new StatusView(this, version, buckets);
+    }
+
+    /**
+     * Device status map backed by one on/off flag per bucket plus individual overrides. Every write is
+     * stamped with a logical clock and the newest of the bucket flag and the override wins, which gives the
+     * same result as writing each device of the bucket in order.
+     */
+    static class StatusView extends AbstractMap<String, Boolean> {
+        private static class Write {
+            boolean value;
+            long stamp;
+        }
+
+        private final DeviceCatalog catalog;
+        private final long version;
+        private final Bucket[] buckets;
+        private final DeviceEntry[][] entries;
+        private final int[] lengths;
+        private final int[] counts;
+        private final List<List<String>> devices; // Se materializa al recorrer cada grupo
+        private final boolean[] bucketOn;
+        private final long[] bucketStamp; // 0 = el grupo aún no tiene estado
+        private final Map<String, Write> overrides = new HashMap<>();
+        private long clock;
+
+        // Captura la versión y, por grupo, el arreglo y su longitud: O(grupos), no O(dispositivos)
+        StatusView(DeviceCatalog catalog, long version, Bucket[] buckets) {
+            this.catalog = catalog;
+            this.version = version;
+            this.buckets = buckets;
+            this.entries = new DeviceEntry[buckets.length][];
+            this.lengths = new int[buckets.length];
+            this.counts = new int[buckets.length];
+            this.devices = new ArrayList<>(Collections.nCopies(buckets.length, null));
+            for (int b = 0; b < buckets.length; b++) {
+                lengths[b] = buckets[b].length;
+                entries[b] = buckets[b].entries;
+                counts[b] = buckets[b].live;
+            }
+            this.bucketOn = new boolean[buckets.length];
+            this.bucketStamp = new long[buckets.length];
+        }
+
+        int priorityOf(int bucket) {
+            return buckets[bucket].priority;
+        }
+
+        boolean isExempt(int bucket) {
+            return buckets[bucket].exempt;
+        }
+
+        int deviceCount(int bucket) {
+            return counts[bucket];
+        }
+
+        List<String> devicesIn(int bucket) {
+            List<String> list = devices.get(bucket);
+            if (list == null) {
+                list = new ArrayList<>(counts[bucket]);
+                for (int i = 0; i < lengths[bucket]; i++) {
+                    DeviceEntry entry = entries[bucket][i];
+                    if (entry.isLiveAt(version)) {
+                        list.add(entry.device);
+                    }
+                }
+                list = Collections.unmodifiableList(list);
+                devices.set(bucket, list);
+            }
+            return list;
+        }
+
+        // Grupo del dispositivo en la versión de la vista, aunque después se haya vuelto a registrar
+        int bucketOf(Object device) {
+            DeviceEntry entry = catalog.latest.get(device);
+            while (entry != null && entry.addedAt > version) {
+                entry = entry.previous;
+            }
+            return entry != null && entry.isLiveAt(version) ? entry.bucket : -1;
+        }
+
+        void setBucket(int bucket, boolean on) {
+            bucketOn[bucket] = on;
+            bucketStamp[bucket] = ++clock;
+        }
+
+        int bucketCount() {
+            return bucketOn.length;
+        }
+
+        boolean isBucketOn(int bucket) {
+            return bucketOn[bucket];
+        }
+
+        // Cierto si ningún dispositivo del grupo tiene una escritura individual posterior al grupo
+        boolean isUniform(int bucket) {
+            for (Map.Entry<String, Write> entry : overrides.entrySet()) {
+                if (bucketOf(entry.getKey()) == bucket && entry.getValue().stamp > bucketStamp[bucket]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int validBucket(Object device) {
+            int bucket = bucketOf(device);
+            return bucket >= 0 && bucket < bucketOn.length && bucketStamp[bucket] > 0 ? bucket : -1;
+        }
+
+        @Override
+        public Boolean get(Object device) {
+            Write override = overrides.get(device);
+            int bucket = validBucket(device);
+            if (bucket < 0) {
+                return override == null ? null : override.value;
+            }
+            if (override != null && override.stamp > bucketStamp[bucket]) {
+                return override.value;
+            }
+            return bucketOn[bucket];
+        }
+
+        @Override
+        public boolean containsKey(Object device) {
+            return overrides.containsKey(device) || validBucket(device) >= 0;
+        }
+
+        @Override
+        public Boolean put(String device, Boolean value) {
+            Boolean previous = get(device);
+            Write override = overrides.computeIfAbsent(device, k -> new Write());
+            override.value = value;
+            override.stamp = ++clock;
+            return previous;
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            if (!(value instanceof Boolean)) {
+                return false;
+            }
+            boolean wanted = (Boolean) value;
+            int[] overriddenAway = new int[bucketOn.length];
+            for (Map.Entry<String, Write> entry : overrides.entrySet()) {
+                Write override = entry.getValue();
+                int bucket = validBucket(entry.getKey());
+                if (bucket < 0 || override.stamp > bucketStamp[bucket]) {
+                    if (override.value == wanted) {
+                        return true;
+                    }
+                    if (bucket >= 0) {
+                        overriddenAway[bucket]++;
+                    }
+                }
+            }
+            for (int b = 0; b < bucketOn.length; b++) {
+                if (bucketStamp[b] > 0 && bucketOn[b] == wanted
+                        && overriddenAway[b] < counts[b]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int b = 0; b < bucketOn.length; b++) {
+                if (bucketStamp[b] > 0) {
+                    size += counts[b];
+                }
+            }
+            for (String device : overrides.keySet()) {
+                if (validBucket(device) < 0) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Boolean>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return StatusView.this.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Boolean>> iterator() {
+                    List<String> loose = new ArrayList<>();
+                    for (String device : overrides.keySet()) {
+                        if (validBucket(device) < 0) {
+                            loose.add(device);
+                        }
+                    }
+                    return new Iterator<>() {
+                        private int bucket = 0;
+                        private int position = 0;
+                        private int loosePosition = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            while (bucket < bucketOn.length
+                                    && (bucketStamp[bucket] == 0 || position >= counts[bucket])) {
+                                bucket++;
+                                position = 0;
+                            }
+                            return bucket < bucketOn.length || loosePosition < loose.size();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Boolean> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            String device = bucket < bucketOn.length
+                                    ? devicesIn(bucket).get(position++)
+                                    : loose.get(loosePosition++);
+                            return new SimpleImmutableEntry<>(device, get(device));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package activity;
+
+import activity.SmartEnergyManagementSystem.DeviceSchedule;
+import activity.SmartEnergyManagementSystem.EnergyManagementResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fixed-step simulation of a fleet of buildings, each driven through
+ * {@link SmartEnergyManagementSystem#manageEnergy} once per tick over one simulated day. The clock advances
+ * in equal whole-minute ticks and every building is evaluated at every tick, instead of jumping from one
+ * scheduled event to the next as a discrete-event simulation would.
+ *
+ * <p>Price, temperature and schedule traces are synthetic and derived from the seed, so a run is
+ * reproducible. Buildings are split into fixed-size chunks that run in parallel and are merged in chunk
+ * order, which keeps the aggregates identical whatever the number of threads.
+ */
+public class EnergyFleetSimulator {
+    private static final int CHUNK_SIZE = 64;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final String[] OPTIONAL_DEVICES = {"Lights", "Appliances", "Washer", "Dryer", "EVCharger",
+            "WaterHeater", "PoolPump", "Dishwasher"};
+    private static final double[] DESIRED_TEMPERATURE_RANGE = {20.0, 24.0};
+
+    public static class SimulationConfig {
+        int buildings;
+        int ticksPerDay;
+        LocalDateTime start;
+        double priceThreshold;
+        int demandResponseStartTick;
+        int demandResponseEndTick;
+        double demandResponsePriceFactor;
+        long seed;
+        int threads;
+
+        public SimulationConfig(int buildings, int ticksPerDay, LocalDateTime start, double priceThreshold,
+                                int demandResponseStartTick, int demandResponseEndTick,
+                                double demandResponsePriceFactor, long seed, int threads) {
+            if (buildings < 1 || ticksPerDay < 1 || threads < 1) {
+                throw new IllegalArgumentException("buildings, ticksPerDay and threads must be positive");
+            }
+            if (MINUTES_PER_DAY % ticksPerDay != 0) {
+                throw new IllegalArgumentException("ticksPerDay must divide " + MINUTES_PER_DAY
+                        + " so every tick is a whole number of minutes");
+            }
+            this.buildings = buildings;
+            this.ticksPerDay = ticksPerDay;
+            this.start = start;
+            this.priceThreshold = priceThreshold;
+            this.demandResponseStartTick = demandResponseStartTick;
+            this.demandResponseEndTick = demandResponseEndTick;
+            this.demandResponsePriceFactor = demandResponsePriceFactor;
+            this.seed = seed;
+            this.threads = threads;
+        }
+
+        long tickMinutes() {
+            return MINUTES_PER_DAY / ticksPerDay;
+        }
+    }
+
+    public static class SimulationReport {
+        double[] loadPerTick;
+        double peakLoad;
+        int peakTick;
+        double energyUsed;
+        double energyShed;
+        long computeNanos;
+        long wallNanos;
+        int ticks;
+        int buildings;
+
+        double computeNanosPerTick() {
+            return (double) computeNanos / ticks;
+        }
+
+        double computeNanosPerBuildingTick() {
+            return (double) computeNanos / ((long) ticks * buildings);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("buildings=%d ticks=%d peakLoad=%.1fkW@tick%d energyUsed=%.1fkWh energyShed=%.1fkWh"
+                            + " compute/tick=%.0fns compute/building-tick=%.0fns wall=%dms",
+                    buildings, ticks, peakLoad, peakTick, energyUsed, energyShed, computeNanosPerTick(),
+                    computeNanosPerBuildingTick(), wallNanos / 1_000_000);
+        }
+    }
+
+    static class Building {
+        Map<String, Integer> devicePriorities = new LinkedHashMap<>();
+        Map<String, Double> devicePower = new LinkedHashMap<>();
+        double hvacPower;
+        double temperatureOffset;
+        double energyUsageLimit;
+        List<DeviceSchedule> scheduledDevices = new ArrayList<>();
+    }
+
+    // Resultados parciales de un bloque de edificios
+    private static class ChunkResult {
+        double[] load;
+        double[] baseline;
+        long computeNanos;
+    }
+
+    private final SmartEnergyManagementSystem energySystem;
+
+    public EnergyFleetSimulator(SmartEnergyManagementSystem energySystem) {
+        this.energySystem = energySystem;
+    }
+
+    public SimulationReport run(SimulationConfig config) {
+        long wallStart = System.nanoTime();
+        double[] prices = priceTrace(config);
+        double[] temperatures = temperatureTrace(config);
+
+        int chunks = (config.buildings + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads);
+        List<Future<ChunkResult>> futures = new ArrayList<>();
+        try {
+            for (int c = 0; c < chunks; c++) {
+                int from = c * CHUNK_SIZE;
+                int to = Math.min(config.buildings, from + CHUNK_SIZE);
+                futures.add(executor.submit(() -> simulateChunk(config, from, to, prices, temperatures)));
+            }
+
+            SimulationReport report = new SimulationReport();
+            report.ticks = config.ticksPerDay;
+            report.buildings = config.buildings;
+            report.loadPerTick = new double[config.ticksPerDay];
+            double[] baseline = new double[config.ticksPerDay];
+            for (Future<ChunkResult> future : futures) {
+                ChunkResult chunk = future.get();
+                for (int t = 0; t < config.ticksPerDay; t++) {
+                    report.loadPerTick[t] += chunk.load[t];
+                    baseline[t] += chunk.baseline[t];
+                }
+                report.computeNanos += chunk.computeNanos;
+            }
+
+            double tickHours = 24.0 / config.ticksPerDay;
+            for (int t = 0; t < config.ticksPerDay; t++) {
+                if (report.loadPerTick[t] > report.peakLoad) {
+                    report.peakLoad = report.loadPerTick[t];
+                    report.peakTick = t;
+                }
+                report.energyUsed += report.loadPerTick[t] * tickHours;
+                report.energyShed += Math.max(0, baseline[t] - report.loadPerTick[t]) * tickHours;
+            }
+            report.wallNanos = System.nanoTime() - wallStart;
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ChunkResult simulateChunk(SimulationConfig config, int from, int to, double[] prices,
+                                      double[] temperatures) {
+        ChunkResult result = new ChunkResult();
+        result.load = new double[config.ticksPerDay];
+        result.baseline = new double[config.ticksPerDay];
+        long tickMinutes = config.tickMinutes();
+
+        for (int b = from; b < to; b++) {
+            Building building = generateBuilding(config, b);
+            double energyUsedToday = 0;
+            for (int t = 0; t < config.ticksPerDay; t++) {
+                LocalDateTime now = config.start.plusMinutes(t * tickMinutes);
+                double temperature = temperatures[t] + building.temperatureOffset;
+
+                long begin = System.nanoTime();
+                EnergyManagementResult outcome = energySystem.manageEnergy(prices[t], config.priceThreshold,
+                        building.devicePriorities, now, temperature, DESIRED_TEMPERATURE_RANGE,
+                        building.energyUsageLimit, energyUsedToday, building.scheduledDevices);
+                result.computeNanos += System.nanoTime() - begin;
+
+                double load = load(building, outcome.deviceStatus);
+                double baseline = baselineLoad(building, temperature);
+                result.load[t] += load;
+                result.baseline[t] += baseline;
+                energyUsedToday += load * 24.0 / config.ticksPerDay;
+            }
+        }
+        return result;
+    }
+
+    private static double load(Building building, Map<String, Boolean> deviceStatus) {
+        double load = 0;
+        for (Map.Entry<String, Boolean> entry : deviceStatus.entrySet()) {
+            if (Boolean.TRUE.equals(entry.getValue())) {
+                Double power = building.devicePower.get(entry.getKey());
+                load += power != null ? power : building.hvacPower; // Heating/Cooling no están registrados
+            }
+        }
+        return load;
+    }
+
+    // Carga sin gestión: todo encendido y la climatización sólo fuera del rango deseado
+    private static double baselineLoad(Building building, double temperature) {
+        double load = 0;
+        for (double power : building.devicePower.values()) {
+            load += power;
+        }
+        if (temperature < DESIRED_TEMPERATURE_RANGE[0] || temperature > DESIRED_TEMPERATURE_RANGE[1]) {
+            load += building.hvacPower;
+        }
+        return load;
+    }
+
+    static Building generateBuilding(SimulationConfig config, int index) {
+        Random random = new Random(config.seed * 31 + index);
+        Building building = new Building();
+        building.devicePriorities.put("Security", 1);
+        building.devicePower.put("Security", 0.1);
+        building.devicePriorities.put("Refrigerator", 1);
+        building.devicePower.put("Refrigerator", 0.2 + random.nextDouble() * 0.3);
+
+        // Al menos un dispositivo de baja prioridad para que el recorte por límite de energía termine
+        int optional = 1 + random.nextInt(OPTIONAL_DEVICES.length);
+        for (int i = 0; i < optional; i++) {
+            String device = OPTIONAL_DEVICES[i];
+            building.devicePriorities.put(device, i == 0 ? 2 : 1 + random.nextInt(3));
+            building.devicePower.put(device, 0.2 + random.nextDouble() * 4.8);
+        }
+        building.hvacPower = 1.5 + random.nextDouble() * 3.5;
+        building.temperatureOffset = random.nextGaussian() * 2;
+        building.energyUsageLimit = 20 + random.nextDouble() * 60;
+
+        long tickMinutes = config.tickMinutes();
+        for (int i = 0; i < optional; i++) {
+            if (random.nextBoolean()) {
+                int tick = random.nextInt(config.ticksPerDay);
+                building.scheduledDevices.add(new DeviceSchedule(OPTIONAL_DEVICES[i],
+                        config.start.plusMinutes(tick * tickMinutes)));
+            }
+        }
+        return building;
+    }
+
+    // Precio con pico de tarde, ruido y multiplicador durante el evento de respuesta a la demanda
+    static double[] priceTrace(SimulationConfig config) {
+        Random random = new Random(config.seed);
+        double[] prices = new double[config.ticksPerDay];
+        for (int t = 0; t < config.ticksPerDay; t++) {
+            double hour = t * 24.0 / config.ticksPerDay;
+            double price = 0.12 + 0.06 * Math.max(0, Math.sin((hour - 6) * Math.PI / 14))
+                    + random.nextGaussian() * 0.01;
+            if (t >= config.demandResponseStartTick && t < config.demandResponseEndTick) {
+                price *= config.demandResponsePriceFactor;
+            }
+            prices[t] = Math.max(0, price);
+        }
+        return prices;
+    }
+
+    // Temperatura exterior con mínimo al amanecer y máximo a media tarde
+    static double[] temperatureTrace(SimulationConfig config) {
+        Random random = new Random(config.seed + 1);
+        double[] temperatures = new double[config.ticksPerDay];
+        for (int t = 0; t < config.ticksPerDay; t++) {
+            double hour = t * 24.0 / config.ticksPerDay;
+            temperatures[t] = 22 + 7 * Math.sin((hour - 9) * Math.PI / 12) + random.nextGaussian() * 0.5;
+        }
+        return temperatures;
+    }
+
+    // Uso: EnergyFleetSimulator [edificios] [ticksPorDía] [hilos]
+    public static void main(String[] args) {
+        int buildings = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 96;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        SimulationConfig config = new SimulationConfig(buildings, ticks, LocalDateTime.of(2024, 7, 15, 0, 0),
+                0.20, ticks * 17 / 24, ticks * 20 / 24, 3.0, 42, threads);
+        System.out.println(new EnergyFleetSimulator(new SmartEnergyManagementSystem()).run(config));
+    }
+}
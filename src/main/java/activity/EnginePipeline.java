@@ -0,0 +1,207 @@
+package activity;
+
+import activity.FlightBookingSystem.BookingResult;
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.FraudRules;
+import activity.FraudDetectionSystem.Transaction;
+import activity.SmartEnergyManagementSystem.DeviceSchedule;
+import activity.SmartEnergyManagementSystem.EnergyManagementResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The three engines as stages of one {@link PartitionedPipeline}: bookings are priced by
+ * {@link FlightBookingSystem#bookFlight}, confirmed ones are scored by {@link FraudDetectionSystem#checkForFraud}
+ * on their payment, and building ticks go through {@link SmartEnergyManagementSystem#manageEnergy}. Every
+ * booking reaches the payment sink exactly once; a rejected one arrives with no payment and no fraud result.
+ *
+ * <p>Bookings and payments are both partitioned by account, so every account is handled by one booking
+ * thread and one fraud thread, in submission order, and its payment history lives only in that fraud
+ * partition. Buildings are partitioned by id. Callbacks run on the partition threads.
+ */
+public class EnginePipeline implements AutoCloseable {
+    static final int SWEEP_INTERVAL = 1 << 16;
+
+    public static class BookingRequest {
+        String bookingId;
+        String accountId;
+        String paymentLocation;
+        int passengers;
+        LocalDateTime bookingTime;
+        int availableSeats;
+        double currentPrice;
+        int previousSales;
+        LocalDateTime departureTime;
+        int rewardPointsAvailable;
+
+        public BookingRequest(String bookingId, String accountId, String paymentLocation, int passengers,
+                              LocalDateTime bookingTime, int availableSeats, double currentPrice, int previousSales,
+                              LocalDateTime departureTime, int rewardPointsAvailable) {
+            this.bookingId = bookingId;
+            this.accountId = accountId;
+            this.paymentLocation = paymentLocation;
+            this.passengers = passengers;
+            this.bookingTime = bookingTime;
+            this.availableSeats = availableSeats;
+            this.currentPrice = currentPrice;
+            this.previousSales = previousSales;
+            this.departureTime = departureTime;
+            this.rewardPointsAvailable = rewardPointsAvailable;
+        }
+    }
+
+    public static class PaymentOutcome {
+        String bookingId;
+        String accountId;
+        BookingResult booking;
+        Transaction payment;
+        FraudCheckResult fraud;
+
+        PaymentOutcome(String bookingId, String accountId, BookingResult booking, Transaction payment) {
+            this.bookingId = bookingId;
+            this.accountId = accountId;
+            this.booking = booking;
+            this.payment = payment;
+        }
+    }
+
+    public static class BuildingTick {
+        String buildingId;
+        double currentPrice;
+        double priceThreshold;
+        Map<String, Integer> devicePriorities;
+        LocalDateTime currentTime;
+        double currentTemperature;
+        double[] desiredTemperatureRange;
+        double energyUsageLimit;
+        double totalEnergyUsedToday;
+        List<DeviceSchedule> scheduledDevices;
+
+        public BuildingTick(String buildingId, double currentPrice, double priceThreshold,
+                            Map<String, Integer> devicePriorities, LocalDateTime currentTime,
+                            double currentTemperature, double[] desiredTemperatureRange, double energyUsageLimit,
+                            double totalEnergyUsedToday, List<DeviceSchedule> scheduledDevices) {
+            this.buildingId = buildingId;
+            this.currentPrice = currentPrice;
+            this.priceThreshold = priceThreshold;
+            this.devicePriorities = devicePriorities;
+            this.currentTime = currentTime;
+            this.currentTemperature = currentTemperature;
+            this.desiredTemperatureRange = desiredTemperatureRange;
+            this.energyUsageLimit = energyUsageLimit;
+            this.totalEnergyUsedToday = totalEnergyUsedToday;
+            this.scheduledDevices = scheduledDevices;
+        }
+    }
+
+    private final PartitionedPipeline pipeline;
+    private final PartitionedPipeline.Stage<BookingRequest, PaymentOutcome> bookingStage;
+    private final PartitionedPipeline.Stage<BuildingTick, Void> energyStage;
+
+    public EnginePipeline(int bookingPartitions, int fraudPartitions, int energyPartitions,
+                          FlightBookingSystem bookingSystem, FraudDetectionSystem fraudSystem,
+                          SmartEnergyManagementSystem energySystem, List<String> blacklistedLocations,
+                          Consumer<PaymentOutcome> paymentSink, BiConsumer<String, EnergyManagementResult> energySink) {
+        pipeline = new PartitionedPipeline(1024, 64);
+
+        PartitionedPipeline.Stage<PaymentOutcome, Void> fraudStage = pipeline.addStage("fraud", fraudPartitions,
+                outcome -> outcome.accountId.hashCode(),
+                () -> new FraudHandler(fraudSystem, blacklistedLocations, paymentSink), null);
+
+        bookingStage = pipeline.addStage("booking", bookingPartitions, request -> request.accountId.hashCode(),
+                () -> (batch, emitter) -> {
+                    for (BookingRequest request : batch) {
+                        BookingResult booking = bookingSystem.bookFlight(request.passengers, request.bookingTime,
+                                request.availableSeats, request.currentPrice, request.previousSales, false,
+                                request.departureTime, request.rewardPointsAvailable);
+                        // Las rechazadas siguen por la partición de la cuenta para conservar su orden
+                        Transaction payment = booking.confirmation
+                                ? new Transaction(booking.totalPrice, request.bookingTime, request.paymentLocation)
+                                : null;
+                        emitter.emit(new PaymentOutcome(request.bookingId, request.accountId, booking, payment));
+                    }
+                }, fraudStage);
+
+        energyStage = pipeline.addStage("energy", energyPartitions, tick -> tick.buildingId.hashCode(),
+                () -> (batch, emitter) -> {
+                    for (BuildingTick tick : batch) {
+                        EnergyManagementResult result = energySystem.manageEnergy(tick.currentPrice,
+                                tick.priceThreshold, tick.devicePriorities, tick.currentTime,
+                                tick.currentTemperature, tick.desiredTemperatureRange, tick.energyUsageLimit,
+                                tick.totalEnergyUsedToday, tick.scheduledDevices);
+                        energySink.accept(tick.buildingId, result);
+                    }
+                }, null);
+    }
+
+    public void start() {
+        pipeline.start();
+    }
+
+    public void submitBooking(BookingRequest request) {
+        bookingStage.submit(request);
+    }
+
+    public void submitBuildingTick(BuildingTick tick) {
+        energyStage.submit(tick);
+    }
+
+    // Espera a que se procese todo lo enviado y detiene los hilos
+    @Override
+    public void close() {
+        pipeline.close();
+    }
+
+    // Historial de pagos por cuenta, propiedad exclusiva de la partición
+    static class FraudHandler implements PartitionedPipeline.Handler<PaymentOutcome, Void> {
+        private final FraudDetectionSystem fraudSystem;
+        private final List<String> blacklistedLocations;
+        private final Consumer<PaymentOutcome> sink;
+        private final Map<String, List<Transaction>> histories = new HashMap<>();
+        private LocalDateTime watermark;
+        private long sinceSweep;
+
+        FraudHandler(FraudDetectionSystem fraudSystem, List<String> blacklistedLocations,
+                     Consumer<PaymentOutcome> sink) {
+            this.fraudSystem = fraudSystem;
+            this.blacklistedLocations = blacklistedLocations;
+            this.sink = sink;
+        }
+
+        @Override
+        public void onBatch(List<PaymentOutcome> batch, PartitionedPipeline.Emitter<Void> emitter) {
+            FraudRules rules = fraudSystem.getRules();
+            for (PaymentOutcome outcome : batch) {
+                if (outcome.payment == null) {
+                    sink.accept(outcome); // Reserva rechazada: no hay pago que analizar
+                    continue;
+                }
+                List<Transaction> history = histories.computeIfAbsent(outcome.accountId, k -> new ArrayList<>());
+                rules.trimHistory(history, outcome.payment.timestamp);
+                outcome.fraud = fraudSystem.checkForFraud(outcome.payment, history, blacklistedLocations, rules);
+                history.add(outcome.payment);
+                if (watermark == null || outcome.payment.timestamp.isAfter(watermark)) {
+                    watermark = outcome.payment.timestamp;
+                }
+                sink.accept(outcome);
+            }
+
+            // Las cuentas inactivas sólo se recortan al volver a pagar; el barrido periódico las descarta
+            sinceSweep += batch.size();
+            if (sinceSweep >= SWEEP_INTERVAL && watermark != null) {
+                sinceSweep = 0;
+                rules.sweepHistories(histories, watermark);
+            }
+        }
+
+        int accountCount() {
+            return histories.size();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package activity;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Properties;
 
 public class FlightBookingSystem {
 
@@ -20,6 +21,55 @@ public class FlightBookingSystem {
         }
     }
 
+    public static class BookingRules {
+        static final BookingRules DEFAULT = new BookingRules(24, 100, 4, 0.95, 48, 0.5);
+
+        final long lastMinuteHours;
+        final double lastMinuteFee;
+        final int groupDiscountMinPassengers;
+        final double groupDiscountFactor;
+        final long fullRefundHours;
+        final double partialRefundFactor;
+
+        public BookingRules(long lastMinuteHours, double lastMinuteFee, int groupDiscountMinPassengers,
+                            double groupDiscountFactor, long fullRefundHours, double partialRefundFactor) {
+            ConfigWatcher.check(lastMinuteHours >= 0 && fullRefundHours >= 0, "Hours must be non-negative");
+            ConfigWatcher.check(lastMinuteFee >= 0, "lastMinuteFee must be non-negative");
+            ConfigWatcher.check(groupDiscountMinPassengers >= 1, "groupDiscountMinPassengers must be at least 1");
+            ConfigWatcher.check(groupDiscountFactor > 0 && groupDiscountFactor <= 1,
+                    "groupDiscountFactor must be in (0, 1]");
+            ConfigWatcher.check(partialRefundFactor >= 0 && partialRefundFactor <= 1,
+                    "partialRefundFactor must be in [0, 1]");
+            this.lastMinuteHours = lastMinuteHours;
+            this.lastMinuteFee = lastMinuteFee;
+            this.groupDiscountMinPassengers = groupDiscountMinPassengers;
+            this.groupDiscountFactor = groupDiscountFactor;
+            this.fullRefundHours = fullRefundHours;
+            this.partialRefundFactor = partialRefundFactor;
+        }
+
+        public static BookingRules fromProperties(Properties properties) {
+            return new BookingRules(
+                    ConfigWatcher.getLong(properties, "booking.lastMinuteHours", DEFAULT.lastMinuteHours),
+                    ConfigWatcher.getDouble(properties, "booking.lastMinuteFee", DEFAULT.lastMinuteFee),
+                    ConfigWatcher.getInt(properties, "booking.groupDiscountMinPassengers",
+                            DEFAULT.groupDiscountMinPassengers),
+                    ConfigWatcher.getDouble(properties, "booking.groupDiscountFactor", DEFAULT.groupDiscountFactor),
+                    ConfigWatcher.getLong(properties, "booking.fullRefundHours", DEFAULT.fullRefundHours),
+                    ConfigWatcher.getDouble(properties, "booking.partialRefundFactor", DEFAULT.partialRefundFactor));
+        }
+    }
+
+    private volatile BookingRules rules = BookingRules.DEFAULT;
+
+    public BookingRules getRules() {
+        return rules;
+    }
+
+    public void updateRules(BookingRules rules) {
+        this.rules = rules;
+    }
+
     public BookingResult bookFlight(int passengers, LocalDateTime bookingTime, int availableSeats,
                                     double currentPrice, int previousSales, boolean isCancellation,
                                     LocalDateTime departureTime, int rewardPointsAvailable) {
@@ -27,6 +77,7 @@ public class FlightBookingSystem {
         double refundAmount = 0;
         boolean confirmation = false;
         boolean pointsUsed = false;
+        BookingRules rules = this.rules; // Una sola lectura volátil por reserva
 
         // Check if enough seats are available
         if (passengers > availableSeats) {
@@ -39,13 +90,13 @@ public class FlightBookingSystem {
 
         // Last-minute fee
         long hoursToDeparture = Duration.between(bookingTime, departureTime).toHours();
-        if (hoursToDeparture < 24) {
-            finalPrice += 100;
+        if (hoursToDeparture < rules.lastMinuteHours) {
+            finalPrice += rules.lastMinuteFee;
         }
 
         // Group booking discount
-        if (passengers > 4) {
-            finalPrice *= 0.95;  // 5% discount
+        if (passengers > rules.groupDiscountMinPassengers) {
+            finalPrice *= rules.groupDiscountFactor;  // 5% discount by default
         }
 
         // Reward points redemption
@@ -56,10 +107,10 @@ public class FlightBookingSystem {
 
         // Cancellations
         if (isCancellation) {
-            if (hoursToDeparture >= 48) {
+            if (hoursToDeparture >= rules.fullRefundHours) {
                 refundAmount = finalPrice;
             } else {
-                refundAmount = finalPrice * 0.5;
+                refundAmount = finalPrice * rules.partialRefundFactor;
             }
             return new BookingResult(false, 0, refundAmount, false);
         }
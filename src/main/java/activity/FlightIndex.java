@@ -0,0 +1,191 @@
+package activity;
+
+import activity.FlightBookingSystem.BookingResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory flight inventory indexed by route and departure time, for quote traffic that would otherwise
+ * call {@link FlightBookingSystem#bookFlight} one flight at a time.
+ *
+ * <p>Each route is a concurrent skip list ordered by departure, so searches never block writers. Seats,
+ * price and previous sales of a flight live in one immutable snapshot swapped with compare-and-set; a search
+ * reads each flight's snapshot once and prices it with the same {@code bookFlight} rules used for booking.
+ */
+public class FlightIndex {
+
+    public static class Quote {
+        String flightId;
+        LocalDateTime departureTime;
+        int availableSeats;
+        double totalPrice;
+
+        public Quote(String flightId, LocalDateTime departureTime, int availableSeats, double totalPrice) {
+            this.flightId = flightId;
+            this.departureTime = departureTime;
+            this.availableSeats = availableSeats;
+            this.totalPrice = totalPrice;
+        }
+    }
+
+    static class Inventory {
+        final int availableSeats;
+        final double currentPrice;
+        final int previousSales;
+
+        Inventory(int availableSeats, double currentPrice, int previousSales) {
+            this.availableSeats = availableSeats;
+            this.currentPrice = currentPrice;
+            this.previousSales = previousSales;
+        }
+    }
+
+    static class Flight {
+        final String flightId;
+        final String route;
+        final LocalDateTime departureTime;
+        final AtomicReference<Inventory> inventory;
+
+        Flight(String flightId, String route, LocalDateTime departureTime, Inventory inventory) {
+            this.flightId = flightId;
+            this.route = route;
+            this.departureTime = departureTime;
+            this.inventory = new AtomicReference<>(inventory);
+        }
+    }
+
+    // Orden por salida y luego por id; los límites de un instante van antes o después de todos sus ids
+    static class DepartureKey implements Comparable<DepartureKey> {
+        final LocalDateTime departureTime;
+        final String flightId;
+        final int bound; // -1 límite inferior, 1 límite superior, 0 vuelo
+
+        DepartureKey(LocalDateTime departureTime, String flightId) {
+            this(departureTime, flightId, 0);
+        }
+
+        private DepartureKey(LocalDateTime departureTime, String flightId, int bound) {
+            this.departureTime = departureTime;
+            this.flightId = flightId;
+            this.bound = bound;
+        }
+
+        static DepartureKey lowerBound(LocalDateTime departureTime) {
+            return new DepartureKey(departureTime, null, -1);
+        }
+
+        static DepartureKey upperBound(LocalDateTime departureTime) {
+            return new DepartureKey(departureTime, null, 1);
+        }
+
+        @Override
+        public int compareTo(DepartureKey other) {
+            int byTime = departureTime.compareTo(other.departureTime);
+            if (byTime != 0) {
+                return byTime;
+            }
+            if (bound != 0 || other.bound != 0) {
+                return Integer.compare(bound, other.bound);
+            }
+            return flightId.compareTo(other.flightId);
+        }
+    }
+
+    private final FlightBookingSystem bookingSystem;
+    private final Map<String, ConcurrentSkipListMap<DepartureKey, Flight>> routes = new ConcurrentHashMap<>();
+    private final Map<String, Flight> flightsById = new ConcurrentHashMap<>();
+
+    public FlightIndex(FlightBookingSystem bookingSystem) {
+        this.bookingSystem = bookingSystem;
+    }
+
+    public void addFlight(String flightId, String origin, String destination, LocalDateTime departureTime,
+                          int availableSeats, double currentPrice, int previousSales) {
+        String route = route(origin, destination);
+        Flight flight = new Flight(flightId, route, departureTime,
+                new Inventory(availableSeats, currentPrice, previousSales));
+        if (flightsById.putIfAbsent(flightId, flight) != null) {
+            throw new IllegalArgumentException("Flight already indexed: " + flightId);
+        }
+        routes.computeIfAbsent(route, k -> new ConcurrentSkipListMap<>())
+                .put(new DepartureKey(departureTime, flightId), flight);
+    }
+
+    public boolean removeFlight(String flightId) {
+        Flight flight = flightsById.remove(flightId);
+        if (flight == null) {
+            return false;
+        }
+        routes.get(flight.route).remove(new DepartureKey(flight.departureTime, flightId));
+        return true;
+    }
+
+    public void updateInventory(String flightId, int availableSeats, double currentPrice, int previousSales) {
+        flight(flightId).inventory.set(new Inventory(availableSeats, currentPrice, previousSales));
+    }
+
+    // Descuenta asientos sin bloquear; falla si otro hilo los vendió antes
+    public boolean reserveSeats(String flightId, int passengers) {
+        AtomicReference<Inventory> inventory = flight(flightId).inventory;
+        while (true) {
+            Inventory current = inventory.get();
+            if (passengers > current.availableSeats) {
+                return false;
+            }
+            Inventory updated = new Inventory(current.availableSeats - passengers, current.currentPrice,
+                    current.previousSales + passengers);
+            if (inventory.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    public int availableSeats(String flightId) {
+        return flight(flightId).inventory.get().availableSeats;
+    }
+
+    // Vuelos de la ruta con salida en [from, to] y asientos suficientes, con su precio, en orden de salida
+    public List<Quote> search(String origin, String destination, LocalDateTime from, LocalDateTime to,
+                              int passengers, LocalDateTime bookingTime) {
+        List<Quote> quotes = new ArrayList<>();
+        ConcurrentSkipListMap<DepartureKey, Flight> flights = routes.get(route(origin, destination));
+        if (flights == null || to.isBefore(from)) {
+            return quotes;
+        }
+        // Sin sumar tiempo a to, que desbordaría con LocalDateTime.MAX
+        ConcurrentNavigableMap<DepartureKey, Flight> range = flights.subMap(
+                DepartureKey.lowerBound(from), true, DepartureKey.upperBound(to), true);
+        for (Flight flight : range.values()) {
+            Inventory inventory = flight.inventory.get();
+            if (passengers > inventory.availableSeats) {
+                continue;
+            }
+            BookingResult result = bookingSystem.bookFlight(passengers, bookingTime, inventory.availableSeats,
+                    inventory.currentPrice, inventory.previousSales, false, flight.departureTime, 0);
+            if (result.confirmation) {
+                quotes.add(new Quote(flight.flightId, flight.departureTime, inventory.availableSeats,
+                        result.totalPrice));
+            }
+        }
+        return quotes;
+    }
+
+    private Flight flight(String flightId) {
+        Flight flight = flightsById.get(flightId);
+        if (flight == null) {
+            throw new IllegalArgumentException("Unknown flight: " + flightId);
+        }
+        return flight;
+    }
+
+    private static String route(String origin, String destination) {
+        return origin + "->" + destination;
+    }
+}
@@ -0,0 +1,104 @@
+package activity;
+
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.Transaction;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of {@link FraudDetectionSystem#checkForFraud}, with an AIMD concurrency limit:
+ * every check that finishes under the target latency raises the limit by {@code 1 / limit}, and a slower one
+ * multiplies it by the backoff factor. Only checks that started after the last decrease can decrease it
+ * again, so a burst of slow checks that were already in flight backs off once, not once per check.
+ *
+ * <p>Checks arriving while the in-flight count is at the limit are not queued; they are answered right away
+ * by {@link FraudDetectionSystem#checkForFraudFastPath}, whose result is marked as degraded. This keeps
+ * latency bounded during spikes without failing open.
+ */
+public class FraudAdmissionController {
+    private final FraudDetectionSystem fraudSystem;
+    private final long targetLatencyNanos;
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffFactor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong degraded = new AtomicLong();
+
+    public FraudAdmissionController(FraudDetectionSystem fraudSystem, long targetLatencyNanos, double initialLimit,
+                                    double minLimit, double maxLimit, double backoffFactor) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffFactor <= 0 || backoffFactor >= 1) {
+            throw new IllegalArgumentException("backoffFactor must be between 0 and 1");
+        }
+        this.fraudSystem = fraudSystem;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffFactor = backoffFactor;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    public FraudCheckResult checkForFraud(Transaction currentTransaction, List<Transaction> previousTransactions,
+                                          List<String> blacklistedLocations) {
+        if (inFlight.incrementAndGet() > (int) getLimit()) {
+            inFlight.decrementAndGet();
+            degraded.incrementAndGet();
+            return fraudSystem.checkForFraudFastPath(currentTransaction, blacklistedLocations);
+        }
+
+        admitted.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return fraudSystem.checkForFraud(currentTransaction, previousTransactions, blacklistedLocations);
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(start, System.nanoTime() - start);
+        }
+    }
+
+    // Aumento aditivo bajo el objetivo, disminución multiplicativa por encima
+    void onSample(long startNanos, long latencyNanos) {
+        boolean slow = latencyNanos > targetLatencyNanos;
+        if (slow) {
+            // Una muestra que empezó antes de la última bajada ya está contada en ella; sólo un hilo la reclama
+            long lastDecrease = lastDecreaseNanos.get();
+            if (startNanos - lastDecrease < 0
+                    || !lastDecreaseNanos.compareAndSet(lastDecrease, Math.max(System.nanoTime(), startNanos))) {
+                return;
+            }
+        }
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double updated = slow
+                    ? Math.max(minLimit, limit * backoffFactor)
+                    : Math.min(maxLimit, limit + 1 / limit);
+            if (updated == limit || limitBits.compareAndSet(bits, Double.doubleToLongBits(updated))) {
+                return;
+            }
+        }
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAdmittedCount() {
+        return admitted.get();
+    }
+
+    public long getDegradedCount() {
+        return degraded.get();
+    }
+}
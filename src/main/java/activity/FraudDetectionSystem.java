@@ -2,7 +2,10 @@ package activity;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 public class FraudDetectionSystem {
 
@@ -23,57 +26,204 @@ public class FraudDetectionSystem {
         boolean isBlocked;
         boolean verificationRequired;
         int riskScore;
+        boolean degraded; // Sólo monto y lista negra; el historial no se revisó
 
         public FraudCheckResult(boolean isFraudulent, boolean isBlocked, boolean verificationRequired, int riskScore) {
+            this(isFraudulent, isBlocked, verificationRequired, riskScore, false);
+        }
+
+        public FraudCheckResult(boolean isFraudulent, boolean isBlocked, boolean verificationRequired, int riskScore,
+                                boolean degraded) {
             this.isFraudulent = isFraudulent;
             this.isBlocked = isBlocked;
             this.verificationRequired = verificationRequired;
             this.riskScore = riskScore;
+            this.degraded = degraded;
+        }
+    }
+
+    public static class FraudRules {
+        static final FraudRules DEFAULT = new FraudRules(10000, 10, 60, 30, 10, 5, 20);
+
+        final double amountThreshold;
+        final int maxRecentTransactions;
+        final long recentWindowMinutes;
+        final long locationChangeMinutes;
+        final long ringWindowMinutes;
+        final int ringAccountThreshold;
+        final int ringRiskScore;
+
+        public FraudRules(double amountThreshold, int maxRecentTransactions, long recentWindowMinutes,
+                          long locationChangeMinutes) {
+            this(amountThreshold, maxRecentTransactions, recentWindowMinutes, locationChangeMinutes, 10, 5, 20);
+        }
+
+        public FraudRules(double amountThreshold, int maxRecentTransactions, long recentWindowMinutes,
+                          long locationChangeMinutes, long ringWindowMinutes, int ringAccountThreshold,
+                          int ringRiskScore) {
+            ConfigWatcher.check(amountThreshold >= 0, "amountThreshold must be non-negative");
+            ConfigWatcher.check(maxRecentTransactions >= 0, "maxRecentTransactions must be non-negative");
+            ConfigWatcher.check(recentWindowMinutes >= 0 && locationChangeMinutes >= 0 && ringWindowMinutes >= 0,
+                    "Windows must be non-negative");
+            ConfigWatcher.check(ringAccountThreshold >= 1, "ringAccountThreshold must be at least 1");
+            ConfigWatcher.check(ringRiskScore >= 0 && ringRiskScore <= 100, "ringRiskScore must be in [0, 100]");
+            this.amountThreshold = amountThreshold;
+            this.maxRecentTransactions = maxRecentTransactions;
+            this.recentWindowMinutes = recentWindowMinutes;
+            this.locationChangeMinutes = locationChangeMinutes;
+            this.ringWindowMinutes = ringWindowMinutes;
+            this.ringAccountThreshold = ringAccountThreshold;
+            this.ringRiskScore = ringRiskScore;
         }
+
+        public static FraudRules fromProperties(Properties properties) {
+            return new FraudRules(
+                    ConfigWatcher.getDouble(properties, "fraud.amountThreshold", DEFAULT.amountThreshold),
+                    ConfigWatcher.getInt(properties, "fraud.maxRecentTransactions", DEFAULT.maxRecentTransactions),
+                    ConfigWatcher.getLong(properties, "fraud.recentWindowMinutes", DEFAULT.recentWindowMinutes),
+                    ConfigWatcher.getLong(properties, "fraud.locationChangeMinutes", DEFAULT.locationChangeMinutes),
+                    ConfigWatcher.getLong(properties, "fraud.ringWindowMinutes", DEFAULT.ringWindowMinutes),
+                    ConfigWatcher.getInt(properties, "fraud.ringAccountThreshold", DEFAULT.ringAccountThreshold),
+                    ConfigWatcher.getInt(properties, "fraud.ringRiskScore", DEFAULT.ringRiskScore));
+        }
+
+        // Transactions older than this never influence a decision, so callers may drop them from the history
+        long historyWindowMinutes() {
+            return Math.max(recentWindowMinutes, locationChangeMinutes);
+        }
+
+        // Quita del principio de un historial ordenado las transacciones fuera de la ventana
+        void trimHistory(List<Transaction> history, LocalDateTime now) {
+            long windowMinutes = historyWindowMinutes();
+            int expired = 0;
+            while (expired < history.size()
+                    && Duration.between(history.get(expired).timestamp, now).toMinutes() > windowMinutes) {
+                expired++;
+            }
+            if (expired > 0) {
+                history.subList(0, expired).clear();
+            }
+        }
+
+        // Recorta todos los historiales y descarta los que quedan vacíos, para que la memoria dependa de la
+        // ventana y no del número de cuentas vistas
+        void sweepHistories(Map<String, List<Transaction>> histories, LocalDateTime now) {
+            Iterator<List<Transaction>> it = histories.values().iterator();
+            while (it.hasNext()) {
+                List<Transaction> history = it.next();
+                trimHistory(history, now);
+                if (history.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private volatile FraudRules rules = FraudRules.DEFAULT;
+
+    public FraudRules getRules() {
+        return rules;
+    }
+
+    public void updateRules(FraudRules rules) {
+        this.rules = rules;
     }
 
     public FraudCheckResult checkForFraud(Transaction currentTransaction, List<Transaction> previousTransactions, List<String> blacklistedLocations) {
-        boolean isFraudulent = false;
-        boolean isBlocked = false;
-        boolean verificationRequired = false;
-        int riskScore = 0;
+        return checkForFraud(currentTransaction, previousTransactions, blacklistedLocations, rules);
+    }
 
-        // Check transaction amount
-        if (currentTransaction.amount > 10000) {
-            isFraudulent = true;
-            verificationRequired = true;
-            riskScore += 50;
+    // Camino rápido para sobrecarga: monto y lista negra, sin recorrer el historial
+    public FraudCheckResult checkForFraudFastPath(Transaction currentTransaction, List<String> blacklistedLocations) {
+        FraudCheckResult result = new FraudCheckResult(false, false, false, 0, true);
+        applyAmountRule(result, currentTransaction, rules);
+        applyBlacklistRule(result, currentTransaction, blacklistedLocations);
+        return result;
+    }
+
+    // Además de las reglas de la cuenta, marca la transacción si demasiadas cuentas distintas llegaron
+    // desde otra ubicación a la misma en los últimos minutos. El grafo debe cubrir ringWindowMinutes
+    public FraudCheckResult checkForFraud(String accountId, Transaction currentTransaction,
+                                          List<Transaction> previousTransactions, List<String> blacklistedLocations,
+                                          FraudRingGraph ringGraph) {
+        FraudRules rules = this.rules;
+        if (rules.ringWindowMinutes > ringGraph.getWindowMinutes()) {
+            throw new IllegalArgumentException("Ring graph window of " + ringGraph.getWindowMinutes()
+                    + " minutes is shorter than ringWindowMinutes " + rules.ringWindowMinutes);
         }
+        FraudCheckResult result = checkForFraud(currentTransaction, previousTransactions, blacklistedLocations, rules);
+
+        // Sólo cuentan las cuentas para las que la ubicación es nueva; quien paga donde siempre no es un anillo
+        Transaction previous = null;
+        for (Transaction transaction : previousTransactions) {
+            if (!transaction.timestamp.isAfter(currentTransaction.timestamp)
+                    && (previous == null || transaction.timestamp.isAfter(previous.timestamp))) {
+                previous = transaction;
+            }
+        }
+        String previousLocation = previous != null ? previous.location : ringGraph.lastLocationOf(accountId);
+        boolean newLocation = !currentTransaction.location.equals(previousLocation);
+        int arrivals = ringGraph.recordAndCount(accountId, currentTransaction, newLocation, rules.ringWindowMinutes);
+        if (arrivals >= rules.ringAccountThreshold) {
+            result.isFraudulent = true;
+            result.verificationRequired = true;
+            result.riskScore = Math.min(100, result.riskScore + rules.ringRiskScore);
+        }
+        return result;
+    }
+
+    public FraudCheckResult checkForFraud(Transaction currentTransaction, List<Transaction> previousTransactions,
+                                          List<String> blacklistedLocations, FraudRules rules) {
+        FraudCheckResult result = new FraudCheckResult(false, false, false, 0);
+
+        // Check transaction amount
+        applyAmountRule(result, currentTransaction, rules);
 
         // Check for excessive transactions in the last hour
         int recentTransactionCount = 0;
         for (Transaction transaction : previousTransactions) {
-            if (Duration.between(transaction.timestamp, currentTransaction.timestamp).toMinutes() <= 60) {
+            if (Duration.between(transaction.timestamp, currentTransaction.timestamp).toMinutes() <= rules.recentWindowMinutes) {
                 recentTransactionCount++;
             }
         }
-        if (recentTransactionCount > 10) {
-            isBlocked = true;
-            riskScore += 30;
+        if (recentTransactionCount > rules.maxRecentTransactions) {
+            result.isBlocked = true;
+            result.riskScore += 30;
         }
 
         // Check for location change within a short time frame
         if (!previousTransactions.isEmpty()) {
             Transaction lastTransaction = previousTransactions.get(previousTransactions.size() - 1);
             long minutesSinceLastTransaction = Duration.between(lastTransaction.timestamp, currentTransaction.timestamp).toMinutes();
-            if (minutesSinceLastTransaction < 30 && !lastTransaction.location.equals(currentTransaction.location)) {
-                isFraudulent = true;
-                verificationRequired = true;
-                riskScore += 20;
+            if (minutesSinceLastTransaction < rules.locationChangeMinutes && !lastTransaction.location.equals(currentTransaction.location)) {
+                result.isFraudulent = true;
+                result.verificationRequired = true;
+                result.riskScore += 20;
             }
         }
 
         // Blacklist check
-        if (blacklistedLocations.contains(currentTransaction.location)) {
-            isBlocked = true;
-            riskScore = 100;
+        applyBlacklistRule(result, currentTransaction, blacklistedLocations);
+
+        return result;
+    }
+
+    // Reglas compartidas con el camino rápido, para que el resultado degradado no se aparte del completo
+
+    private static void applyAmountRule(FraudCheckResult result, Transaction currentTransaction, FraudRules rules) {
+        if (currentTransaction.amount > rules.amountThreshold) {
+            result.isFraudulent = true;
+            result.verificationRequired = true;
+            result.riskScore += 50;
         }
+    }
 
-        return new FraudCheckResult(isFraudulent, isBlocked, verificationRequired, riskScore);
+    // Debe ir al final: fija el riesgo en 100 sin importar las reglas anteriores
+    private static void applyBlacklistRule(FraudCheckResult result, Transaction currentTransaction,
+                                           List<String> blacklistedLocations) {
+        if (blacklistedLocations.contains(currentTransaction.location)) {
+            result.isBlocked = true;
+            result.riskScore = 100;
+        }
     }
 }
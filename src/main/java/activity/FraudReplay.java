@@ -0,0 +1,345 @@
+package activity;
+
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.FraudRules;
+import activity.FraudDetectionSystem.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded, time-ordered transaction file through {@link FraudDetectionSystem} and scores the
+ * decisions against the labels stored in the file. A record older than the previous one of the same account
+ * is not scored; it is counted in {@link ReplayReport#outOfOrder} instead.
+ *
+ * <p>CSV lines are {@code account,timestamp,amount,location,label}, where the timestamp is either epoch
+ * seconds (UTC) or an ISO local date-time and the label is {@code 1}/{@code 0} or {@code true}/{@code false}.
+ * Binary files are a sequence of records written by {@link #writeBinaryRecord}.
+ */
+public class FraudReplay {
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final int SWEEP_INTERVAL = 1 << 20;
+    private static final List<ReplayRecord> END_OF_STREAM = new ArrayList<>();
+
+    public enum Format { CSV, BINARY }
+
+    public static class ReplayRecord {
+        String account;
+        Transaction transaction;
+        boolean fraudulent;
+
+        public ReplayRecord(String account, Transaction transaction, boolean fraudulent) {
+            this.account = account;
+            this.transaction = transaction;
+            this.fraudulent = fraudulent;
+        }
+    }
+
+    public static class ReplayReport {
+        long truePositives;
+        long falsePositives;
+        long falseNegatives;
+        long trueNegatives;
+        long outOfOrder; // Registros anteriores al último de su cuenta; no se evalúan
+        long elapsedNanos;
+
+        long processed() {
+            return truePositives + falsePositives + falseNegatives + trueNegatives;
+        }
+
+        double precision() {
+            long flagged = truePositives + falsePositives;
+            return flagged == 0 ? 0 : (double) truePositives / flagged;
+        }
+
+        double recall() {
+            long actual = truePositives + falseNegatives;
+            return actual == 0 ? 0 : (double) truePositives / actual;
+        }
+
+        double eventsPerSecond() {
+            return elapsedNanos == 0 ? 0 : processed() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        void merge(ReplayReport other) {
+            truePositives += other.truePositives;
+            falsePositives += other.falsePositives;
+            falseNegatives += other.falseNegatives;
+            trueNegatives += other.trueNegatives;
+            outOfOrder += other.outOfOrder;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("processed=%d tp=%d fp=%d fn=%d tn=%d outOfOrder=%d precision=%.4f recall=%.4f"
+                            + " events/s=%.0f", processed(), truePositives, falsePositives, falseNegatives,
+                    trueNegatives, outOfOrder, precision(), recall(), eventsPerSecond());
+        }
+    }
+
+    private final FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+    private final FraudRules rules;
+    private final List<String> blacklistedLocations;
+    private final int partitions;
+
+    public FraudReplay(FraudRules rules, List<String> blacklistedLocations, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be at least 1");
+        }
+        this.rules = rules;
+        this.blacklistedLocations = blacklistedLocations;
+        this.partitions = partitions;
+    }
+
+    public ReplayReport replay(Path file, Format format) throws IOException {
+        long start = System.nanoTime();
+        List<BlockingQueue<List<ReplayRecord>>> queues = new ArrayList<>();
+        List<Future<ReplayReport>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        try {
+            for (int i = 0; i < partitions; i++) {
+                BlockingQueue<List<ReplayRecord>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+                queues.add(queue);
+                results.add(executor.submit(() -> scorePartition(queue)));
+            }
+
+            // Un solo lector mantiene el orden temporal; cada cuenta cae siempre en la misma partición
+            List<List<ReplayRecord>> batches = new ArrayList<>();
+            for (int i = 0; i < partitions; i++) {
+                batches.add(new ArrayList<>(BATCH_SIZE));
+            }
+            try (RecordReader reader = open(file, format)) {
+                ReplayRecord record;
+                while ((record = reader.next()) != null) {
+                    int partition = Math.floorMod(record.account.hashCode(), partitions);
+                    List<ReplayRecord> batch = batches.get(partition);
+                    batch.add(record);
+                    if (batch.size() == BATCH_SIZE) {
+                        dispatch(queues.get(partition), batch, results.get(partition));
+                        batches.set(partition, new ArrayList<>(BATCH_SIZE));
+                    }
+                }
+            }
+            for (int i = 0; i < partitions; i++) {
+                if (!batches.get(i).isEmpty()) {
+                    dispatch(queues.get(i), batches.get(i), results.get(i));
+                }
+                dispatch(queues.get(i), END_OF_STREAM, results.get(i));
+            }
+
+            ReplayReport report = new ReplayReport();
+            for (Future<ReplayReport> result : results) {
+                report.merge(result.get());
+            }
+            report.elapsedNanos = System.nanoTime() - start;
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replay partition failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void dispatch(BlockingQueue<List<ReplayRecord>> queue, List<ReplayRecord> batch,
+                          Future<ReplayReport> partition) throws InterruptedException, ExecutionException {
+        while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (partition.isDone()) {
+                partition.get(); // Propaga el fallo del trabajador en lugar de bloquear para siempre
+            }
+        }
+    }
+
+    private ReplayReport scorePartition(BlockingQueue<List<ReplayRecord>> queue) throws InterruptedException {
+        ReplayReport report = new ReplayReport();
+        Map<String, List<Transaction>> histories = new HashMap<>();
+        long sinceSweep = 0;
+        LocalDateTime watermark = null;
+
+        List<ReplayRecord> batch;
+        while ((batch = queue.take()) != END_OF_STREAM) {
+            for (ReplayRecord record : batch) {
+                Transaction current = record.transaction;
+                List<Transaction> history = histories.computeIfAbsent(record.account, k -> new ArrayList<>());
+                // Un registro que retrocede en el tiempo daría duraciones negativas y quedaría en el historial
+                if (!history.isEmpty()
+                        && current.timestamp.isBefore(history.get(history.size() - 1).timestamp)) {
+                    report.outOfOrder++;
+                    continue;
+                }
+                rules.trimHistory(history, current.timestamp);
+
+                FraudCheckResult result = fraudSystem.checkForFraud(current, history, blacklistedLocations, rules);
+                boolean flagged = result.isFraudulent || result.isBlocked;
+                if (flagged && record.fraudulent) {
+                    report.truePositives++;
+                } else if (flagged) {
+                    report.falsePositives++;
+                } else if (record.fraudulent) {
+                    report.falseNegatives++;
+                } else {
+                    report.trueNegatives++;
+                }
+                history.add(current);
+                watermark = current.timestamp;
+            }
+
+            // Las cuentas inactivas se descartan para que la memoria dependa de la ventana, no del archivo
+            sinceSweep += batch.size();
+            if (sinceSweep >= SWEEP_INTERVAL) {
+                sinceSweep = 0;
+                rules.sweepHistories(histories, watermark);
+            }
+        }
+        return report;
+    }
+
+    // Lectura de archivos
+
+    interface RecordReader extends AutoCloseable {
+        ReplayRecord next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    static RecordReader open(Path file, Format format) throws IOException {
+        if (format == Format.BINARY) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+            return new RecordReader() {
+                @Override
+                public ReplayRecord next() throws IOException {
+                    String account;
+                    try {
+                        account = in.readUTF();
+                    } catch (EOFException e) {
+                        return null;
+                    }
+                    long epochSecond = in.readLong();
+                    double amount = in.readDouble();
+                    String location = in.readUTF();
+                    boolean fraudulent = in.readBoolean();
+                    LocalDateTime timestamp = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+                    return new ReplayRecord(account, new Transaction(amount, timestamp, location), fraudulent);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    in.close();
+                }
+            };
+        }
+
+        BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return new RecordReader() {
+            private boolean firstLine = true;
+
+            @Override
+            public ReplayRecord next() throws IOException {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    boolean header = firstLine && line.startsWith("account,");
+                    firstLine = false;
+                    if (!header && !line.isBlank() && !line.startsWith("#")) {
+                        return parseCsv(line);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    static ReplayRecord parseCsv(String line) {
+        int c1 = line.indexOf(',');
+        int c2 = line.indexOf(',', c1 + 1);
+        int c3 = line.indexOf(',', c2 + 1);
+        int c4 = line.indexOf(',', c3 + 1);
+        if (c1 < 0 || c2 < 0 || c3 < 0 || c4 < 0) {
+            throw new IllegalArgumentException("Malformed transaction line: " + line);
+        }
+        String account = line.substring(0, c1);
+        String time = line.substring(c1 + 1, c2);
+        LocalDateTime timestamp = time.indexOf('T') >= 0
+                ? LocalDateTime.parse(time)
+                : LocalDateTime.ofEpochSecond(Long.parseLong(time), 0, ZoneOffset.UTC);
+        double amount = Double.parseDouble(line.substring(c2 + 1, c3));
+        String location = line.substring(c3 + 1, c4);
+        String label = line.substring(c4 + 1).trim();
+        boolean fraudulent = label.equals("1") || label.equalsIgnoreCase("true");
+        return new ReplayRecord(account, new Transaction(amount, timestamp, location), fraudulent);
+    }
+
+    public static void writeBinaryRecord(DataOutputStream out, String account, LocalDateTime timestamp,
+                                         double amount, String location, boolean fraudulent) throws IOException {
+        out.writeUTF(account);
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeDouble(amount);
+        out.writeUTF(location);
+        out.writeBoolean(fraudulent);
+    }
+
+    // Uso: FraudReplay <archivo> [--binary] [--partitions N] [--amount X] [--max-recent N]
+    //      [--recent-window MIN] [--location-window MIN] [--blacklist A,B,...]
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: FraudReplay <file> [--binary] [--partitions N] [--amount X] [--max-recent N]"
+                    + " [--recent-window MIN] [--location-window MIN] [--blacklist A,B,...]");
+            System.exit(2);
+        }
+        FraudRules defaults = FraudRules.DEFAULT;
+        Path file = Paths.get(args[0]);
+        Format format = Format.CSV;
+        int partitions = Runtime.getRuntime().availableProcessors();
+        double amount = defaults.amountThreshold;
+        int maxRecent = defaults.maxRecentTransactions;
+        long recentWindow = defaults.recentWindowMinutes;
+        long locationWindow = defaults.locationChangeMinutes;
+        List<String> blacklist = new ArrayList<>();
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--binary" -> format = Format.BINARY;
+                case "--partitions" -> partitions = Integer.parseInt(args[++i]);
+                case "--amount" -> amount = Double.parseDouble(args[++i]);
+                case "--max-recent" -> maxRecent = Integer.parseInt(args[++i]);
+                case "--recent-window" -> recentWindow = Long.parseLong(args[++i]);
+                case "--location-window" -> locationWindow = Long.parseLong(args[++i]);
+                case "--blacklist" -> blacklist = Arrays.asList(args[++i].split(","));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        FraudRules rules = new FraudRules(amount, maxRecent, recentWindow, locationWindow);
+        System.out.println(new FraudReplay(rules, blacklist, partitions).replay(file, format));
+    }
+}
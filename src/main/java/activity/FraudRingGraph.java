@@ -0,0 +1,324 @@
+package activity;
+
+import activity.FraudDetectionSystem.Transaction;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bipartite account/location graph over the transactions of the last {@code windowMinutes}, used to spot
+ * many accounts showing up at the same location within a few minutes.
+ *
+ * <p>Accounts and locations are interned to int ids and every node keeps its edges in a circular pair of
+ * primitive arrays ordered by arrival. Edges are evicted in arrival order as the newest timestamp moves
+ * forward, and nodes without edges give their id back, so memory follows the window and not the stream.
+ *
+ * <p>Every edge also records whether the location was new for the account, i.e. its previous transaction
+ * was elsewhere or it had none, so an account paying where it always pays is not taken for a ring member.
+ * Transactions may arrive late: one older than the window is dropped, and a node that received an edge out
+ * of order is scanned whole instead of stopping at the first edge outside the query.
+ */
+public class FraudRingGraph {
+    private final long windowSeconds;
+    private final Interner accounts = new Interner();
+    private final Interner locations = new Interner();
+    private final EdgeLog edges = new EdgeLog();
+    private long latestSecond = Long.MIN_VALUE;
+    private int[] seenStamp = new int[16];
+    private int stamp;
+
+    public FraudRingGraph(long windowMinutes) {
+        if (windowMinutes < 1) {
+            throw new IllegalArgumentException("windowMinutes must be at least 1");
+        }
+        this.windowSeconds = windowMinutes * 60;
+    }
+
+    // La ubicación es nueva si difiere de la última que el grafo conoce de la cuenta
+    public synchronized void record(String account, Transaction transaction) {
+        record(account, transaction, !transaction.location.equals(lastLocationOf(account)));
+    }
+
+    public synchronized void record(String account, Transaction transaction, boolean newLocation) {
+        long second = transaction.timestamp.toEpochSecond(ZoneOffset.UTC);
+        advance(second);
+        if (second <= latestSecond - windowSeconds) {
+            return; // Llegó tarde y ya está fuera de la ventana
+        }
+        int accountId = accounts.acquire(account);
+        int locationId = locations.acquire(transaction.location);
+        accounts.edges[accountId].add(locationId, second, newLocation);
+        locations.edges[locationId].add(accountId, second, newLocation);
+        edges.add(accountId, locationId, second);
+    }
+
+    // Cuentas distintas con una transacción en la ubicación en (now - minutes, now]
+    public synchronized int accountsAtLocation(String location, LocalDateTime now, long minutes) {
+        checkWithinWindow(minutes);
+        Integer id = locations.ids.get(location);
+        return id == null ? 0 : countDistinct(locations.edges[id], now, minutes, accounts.names.length, false);
+    }
+
+    // Cuentas distintas que llegaron a la ubicación desde otra, o sin historial, en (now - minutes, now]
+    public synchronized int arrivalsAtLocation(String location, LocalDateTime now, long minutes) {
+        checkWithinWindow(minutes);
+        Integer id = locations.ids.get(location);
+        return id == null ? 0 : countDistinct(locations.edges[id], now, minutes, accounts.names.length, true);
+    }
+
+    // Ubicaciones distintas de la cuenta en (now - minutes, now]
+    public synchronized int locationsOfAccount(String account, LocalDateTime now, long minutes) {
+        checkWithinWindow(minutes);
+        Integer id = accounts.ids.get(account);
+        return id == null ? 0 : countDistinct(accounts.edges[id], now, minutes, locations.names.length, false);
+    }
+
+    // Registra la transacción y devuelve las llegadas a su ubicación, en una sola operación
+    public synchronized int recordAndCount(String account, Transaction transaction, boolean newLocation,
+                                           long minutes) {
+        checkWithinWindow(minutes);
+        record(account, transaction, newLocation);
+        return arrivalsAtLocation(transaction.location, transaction.timestamp, minutes);
+    }
+
+    // Ubicación de la última transacción registrada de la cuenta dentro de la ventana, o null
+    public synchronized String lastLocationOf(String account) {
+        Integer id = accounts.ids.get(account);
+        if (id == null) {
+            return null;
+        }
+        Adjacency adjacency = accounts.edges[id];
+        return locations.names[adjacency.other(adjacency.size - 1)];
+    }
+
+    public long getWindowMinutes() {
+        return windowSeconds / 60;
+    }
+
+    public synchronized int edgeCount() {
+        return edges.size;
+    }
+
+    public synchronized int accountCount() {
+        return accounts.ids.size();
+    }
+
+    public synchronized int locationCount() {
+        return locations.ids.size();
+    }
+
+    private void advance(long second) {
+        if (second <= latestSecond) {
+            return;
+        }
+        latestSecond = second;
+        long cutoff = second - windowSeconds;
+        while (edges.size > 0 && edges.oldestSecond() <= cutoff) {
+            int accountId = edges.oldestAccount();
+            int locationId = edges.oldestLocation();
+            edges.removeOldest();
+            accounts.edges[accountId].removeOldest();
+            locations.edges[locationId].removeOldest();
+            accounts.releaseIfEmpty(accountId);
+            locations.releaseIfEmpty(locationId);
+        }
+    }
+
+    // Lo que queda fuera de la ventana ya se descartó; contarlo daría un resultado corto sin aviso
+    private void checkWithinWindow(long minutes) {
+        if (minutes > getWindowMinutes()) {
+            throw new IllegalArgumentException("Query of " + minutes + " minutes exceeds the graph window of "
+                    + getWindowMinutes() + " minutes");
+        }
+    }
+
+    private int countDistinct(Adjacency adjacency, LocalDateTime now, long minutes, int idSpace,
+                              boolean arrivalsOnly) {
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        long cutoff = nowSecond - minutes * 60;
+        if (seenStamp.length < idSpace) {
+            seenStamp = new int[idSpace];
+            stamp = 0;
+        }
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            stamp = 1;
+        }
+
+        // Del más reciente hacia atrás; si llegó alguna arista tarde no se puede cortar al salir de la ventana
+        int distinct = 0;
+        for (int i = adjacency.size - 1; i >= 0; i--) {
+            long second = adjacency.second(i);
+            if (second <= cutoff) {
+                if (adjacency.ordered) {
+                    break;
+                }
+                continue;
+            }
+            int other = adjacency.other(i);
+            if (second <= nowSecond && (!arrivalsOnly || adjacency.isNew(i)) && seenStamp[other] != stamp) {
+                seenStamp[other] = stamp;
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    // Ids compactos con reutilización de los ids liberados
+    private static class Interner {
+        final Map<String, Integer> ids = new HashMap<>();
+        String[] names = new String[16];
+        Adjacency[] edges = new Adjacency[16];
+        int[] free = new int[16];
+        int freeCount;
+        int next;
+
+        int acquire(String name) {
+            Integer existing = ids.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            int id;
+            if (freeCount > 0) {
+                id = free[--freeCount];
+            } else {
+                id = next++;
+                if (id == names.length) {
+                    names = Arrays.copyOf(names, id * 2);
+                    edges = Arrays.copyOf(edges, id * 2);
+                }
+            }
+            names[id] = name;
+            edges[id] = new Adjacency();
+            ids.put(name, id);
+            return id;
+        }
+
+        void releaseIfEmpty(int id) {
+            if (edges[id].size > 0) {
+                return;
+            }
+            ids.remove(names[id]);
+            names[id] = null;
+            edges[id] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = id;
+        }
+    }
+
+    // Aristas de un nodo: id del otro extremo y segundo, en un arreglo circular. El bit alto del id marca
+    // una ubicación nueva para la cuenta
+    private static class Adjacency {
+        private static final int NEW_LOCATION = 1 << 31;
+
+        int[] others = new int[4];
+        long[] seconds = new long[4];
+        int head;
+        int size;
+        boolean ordered = true; // Segundos no decrecientes en orden de llegada
+
+        void add(int other, long second, boolean newLocation) {
+            if (size == others.length) {
+                grow();
+            }
+            if (size > 0 && second < second(size - 1)) {
+                ordered = false;
+            }
+            int index = (head + size) & (others.length - 1);
+            others[index] = newLocation ? other | NEW_LOCATION : other;
+            seconds[index] = second;
+            size++;
+        }
+
+        void removeOldest() {
+            head = (head + 1) & (others.length - 1);
+            size--;
+            if (size == 0) {
+                ordered = true;
+            }
+        }
+
+        int other(int i) {
+            return others[(head + i) & (others.length - 1)] & ~NEW_LOCATION;
+        }
+
+        boolean isNew(int i) {
+            return (others[(head + i) & (others.length - 1)] & NEW_LOCATION) != 0;
+        }
+
+        long second(int i) {
+            return seconds[(head + i) & (others.length - 1)];
+        }
+
+        private void grow() {
+            int[] newOthers = new int[others.length * 2];
+            long[] newSeconds = new long[others.length * 2];
+            for (int i = 0; i < size; i++) {
+                newOthers[i] = others[(head + i) & (others.length - 1)];
+                newSeconds[i] = second(i);
+            }
+            others = newOthers;
+            seconds = newSeconds;
+            head = 0;
+        }
+    }
+
+    // Todas las aristas en orden de llegada, para desalojar por tiempo
+    private static class EdgeLog {
+        int[] accountIds = new int[1024];
+        int[] locationIds = new int[1024];
+        long[] seconds = new long[1024];
+        int head;
+        int size;
+
+        void add(int accountId, int locationId, long second) {
+            if (size == seconds.length) {
+                grow();
+            }
+            int index = (head + size) & (seconds.length - 1);
+            accountIds[index] = accountId;
+            locationIds[index] = locationId;
+            seconds[index] = second;
+            size++;
+        }
+
+        long oldestSecond() {
+            return seconds[head];
+        }
+
+        int oldestAccount() {
+            return accountIds[head];
+        }
+
+        int oldestLocation() {
+            return locationIds[head];
+        }
+
+        void removeOldest() {
+            head = (head + 1) & (seconds.length - 1);
+            size--;
+        }
+
+        private void grow() {
+            int capacity = seconds.length * 2;
+            int[] newAccounts = new int[capacity];
+            int[] newLocations = new int[capacity];
+            long[] newSeconds = new long[capacity];
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) & (seconds.length - 1);
+                newAccounts[i] = accountIds[index];
+                newLocations[i] = locationIds[index];
+                newSeconds[i] = seconds[index];
+            }
+            accountIds = newAccounts;
+            locationIds = newLocations;
+            seconds = newSeconds;
+            head = 0;
+        }
+    }
+}
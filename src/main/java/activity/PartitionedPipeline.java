@@ -0,0 +1,401 @@
+package activity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Staged pipeline where every stage is split into partitions, each owned by one dedicated worker thread for
+ * its whole life. Items are routed to a partition by key, so all state for a key is only touched by a single
+ * thread and needs no locks.
+ *
+ * <p>Every partition reads from an MPSC ring buffer for items submitted from outside, plus one SPSC ring
+ * buffer per upstream partition, so each hop between stages has exactly one producer and one consumer.
+ * Workers drain their inputs in batches and hand each batch to the partition's handler. What the handler
+ * emits is buffered per downstream lane and published once the batch ends, one tail update per lane. Items
+ * with the same key that enter through the same path keep their order end to end.
+ *
+ * <p>Stages are added from the sink back to the source, because a stage needs its downstream stage when it
+ * is created. {@link #start()} launches the workers and {@link #close()} stops them upstream first, once
+ * everything submitted before the call has been processed.
+ */
+public class PartitionedPipeline implements AutoCloseable {
+    private static final int SPINS_BEFORE_YIELD = 100;
+    private static final int YIELDS_BEFORE_PARK = 10;
+    private static final long PARK_NANOS = 20_000;
+
+    // Procesa un lote de una partición; sólo lo llama el hilo dueño de la partición
+    public interface Handler<I, O> {
+        void onBatch(List<I> batch, Emitter<O> emitter);
+    }
+
+    public interface Emitter<O> {
+        void emit(O item);
+    }
+
+    private final int queueCapacity;
+    private final int batchSize;
+    private final List<Stage<?, ?>> stages = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private boolean started;
+
+    public PartitionedPipeline(int queueCapacity, int batchSize) {
+        if (Integer.bitCount(queueCapacity) != 1 || batchSize < 1) {
+            throw new IllegalArgumentException("queueCapacity must be a power of two and batchSize positive");
+        }
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+    }
+
+    // Añade una etapa; downstream es null para una etapa final
+    public synchronized <I, O> Stage<I, O> addStage(String name, int partitions, ToIntFunction<? super I> key,
+                                                    Supplier<? extends Handler<I, O>> handlers,
+                                                    Stage<O, ?> downstream) {
+        if (started) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be at least 1");
+        }
+        Stage<I, O> stage = new Stage<>(name, partitions, key, handlers, downstream);
+        stages.add(stage);
+        return stage;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        started = true;
+        for (Stage<?, ?> stage : stages) {
+            stage.start();
+        }
+    }
+
+    // Detiene las etapas desde la fuente hacia el final, vaciando las colas de cada una
+    @Override
+    public synchronized void close() {
+        if (!started) {
+            return;
+        }
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            stages.get(i).stop();
+        }
+        started = false;
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IllegalStateException("Pipeline handler failed", error);
+        }
+    }
+
+    public class Stage<I, O> {
+        private final String name;
+        private final ToIntFunction<? super I> key;
+        private final Stage<O, ?> downstream;
+        private final int downstreamLaneOffset;
+        private final List<Partition> partitions = new ArrayList<>();
+        private final List<List<SpscRingBuffer<I>>> lanes = new ArrayList<>();
+        private volatile boolean closing;
+
+        Stage(String name, int partitionCount, ToIntFunction<? super I> key,
+              Supplier<? extends Handler<I, O>> handlers, Stage<O, ?> downstream) {
+            this.name = name;
+            this.key = key;
+            this.downstream = downstream;
+            for (int p = 0; p < partitionCount; p++) {
+                partitions.add(new Partition(p, handlers.get()));
+                lanes.add(new ArrayList<>());
+            }
+            this.downstreamLaneOffset = downstream == null ? -1 : downstream.attachUpstream(partitionCount);
+        }
+
+        public int partitionCount() {
+            return partitions.size();
+        }
+
+        // Entrada desde fuera del pipeline; espera mientras la cola de la partición esté llena
+        public void submit(I item) {
+            if (closing) {
+                throw new IllegalStateException("Stage " + name + " is closed");
+            }
+            MpscRingBuffer<I> ingress = partitions.get(partitionOf(item)).ingress;
+            int idle = 0;
+            while (!ingress.offer(item)) {
+                idle = idle(idle);
+            }
+        }
+
+        int partitionOf(I item) {
+            return Math.floorMod(key.applyAsInt(item), partitions.size());
+        }
+
+        // Crea un carril SPSC por partición de la etapa anterior y devuelve el índice del primero
+        private int attachUpstream(int upstreamPartitions) {
+            int first = lanes.get(0).size();
+            for (List<SpscRingBuffer<I>> partitionLanes : lanes) {
+                for (int u = 0; u < upstreamPartitions; u++) {
+                    partitionLanes.add(new SpscRingBuffer<>(queueCapacity));
+                }
+            }
+            return first;
+        }
+
+        private void start() {
+            for (Partition partition : partitions) {
+                partition.start();
+            }
+        }
+
+        private void stop() {
+            closing = true;
+            for (Partition partition : partitions) {
+                partition.join();
+            }
+        }
+
+        private class Partition implements Emitter<O> {
+            private final int index;
+            private final Handler<I, O> handler;
+            private final MpscRingBuffer<I> ingress = new MpscRingBuffer<>(queueCapacity);
+            private final List<I> batch = new ArrayList<>(batchSize);
+            private final List<List<O>> pending = new ArrayList<>(); // Emitidos del lote, por partición destino
+            private Thread thread;
+
+            Partition(int index, Handler<I, O> handler) {
+                this.index = index;
+                this.handler = handler;
+                if (downstream != null) {
+                    for (int p = 0; p < downstream.partitionCount(); p++) {
+                        pending.add(new ArrayList<>());
+                    }
+                }
+            }
+
+            void start() {
+                thread = new Thread(this::run, name + "-" + index);
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            void join() {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            private void run() {
+                List<SpscRingBuffer<I>> inputs = lanes.get(index);
+                int inputCount = inputs.size() + 1;
+                int first = 0;
+                int idle = 0;
+                while (true) {
+                    boolean wasClosing = closing;
+                    // Empieza cada pasada por una entrada distinta para que ninguna acapare los lotes
+                    int drained = 0;
+                    for (int i = 0; i < inputCount && batch.size() < batchSize; i++) {
+                        int input = (first + i) % inputCount;
+                        int room = batchSize - batch.size();
+                        drained += input == 0 ? ingress.drain(batch, room) : inputs.get(input - 1).drain(batch, room);
+                    }
+                    first = (first + 1) % inputCount;
+                    if (drained > 0) {
+                        process();
+                        idle = 0;
+                    } else if (wasClosing) {
+                        return; // Cerrada antes de una pasada vacía: no queda nada por llegar
+                    } else {
+                        idle = idle(idle);
+                    }
+                }
+            }
+
+            private void process() {
+                try {
+                    handler.onBatch(batch, this);
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    batch.clear();
+                    for (int p = 0; p < pending.size(); p++) {
+                        publish(p);
+                    }
+                }
+            }
+
+            @Override
+            public void emit(O item) {
+                if (downstream == null) {
+                    throw new IllegalStateException("Stage " + name + " has no downstream stage");
+                }
+                int target = downstream.partitionOf(item);
+                List<O> items = pending.get(target);
+                items.add(item);
+                if (items.size() == queueCapacity) {
+                    publish(target); // No cabría más en el carril; se publica sin esperar al fin del lote
+                }
+            }
+
+            // Publica lo pendiente del carril; espera mientras esté lleno
+            private void publish(int target) {
+                List<O> items = pending.get(target);
+                if (items.isEmpty()) {
+                    return;
+                }
+                SpscRingBuffer<O> lane = downstream.lanes.get(target).get(downstreamLaneOffset + index);
+                int published = 0;
+                int idle = 0;
+                while (published < items.size()) {
+                    int offered = lane.offer(items, published);
+                    if (offered > 0) {
+                        published += offered;
+                        idle = 0;
+                    } else {
+                        idle = idle(idle);
+                    }
+                }
+                items.clear();
+            }
+        }
+    }
+
+    // Espera activa breve, luego cede el procesador y finalmente duerme unos microsegundos
+    static int idle(int idle) {
+        if (idle < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+        } else if (idle < SPINS_BEFORE_YIELD + YIELDS_BEFORE_PARK) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idle + 1;
+    }
+
+    /**
+     * Bounded single-producer single-consumer queue. Each side caches the other side's index and only
+     * re-reads it when the cached value says the queue is full (or empty).
+     */
+    static final class SpscRingBuffer<E> {
+        private final Object[] buffer;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private long cachedHead;
+        private long cachedTail;
+
+        SpscRingBuffer(int capacity) {
+            this.buffer = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+
+        boolean offer(E item) {
+            long t = tail.get();
+            if (t - cachedHead >= buffer.length) {
+                cachedHead = head.get();
+                if (t - cachedHead >= buffer.length) {
+                    return false;
+                }
+            }
+            buffer[(int) t & mask] = item;
+            tail.lazySet(t + 1);
+            return true;
+        }
+
+        // Escribe items desde from hasta donde quepa y los publica con una sola actualización de la cola
+        int offer(List<? extends E> items, int from) {
+            long t = tail.get();
+            int wanted = items.size() - from;
+            if (buffer.length - (t - cachedHead) < wanted) {
+                cachedHead = head.get();
+            }
+            int count = (int) Math.min(wanted, buffer.length - (t - cachedHead));
+            for (int i = 0; i < count; i++) {
+                buffer[(int) (t + i) & mask] = items.get(from + i);
+            }
+            if (count > 0) {
+                tail.lazySet(t + count);
+            }
+            return count;
+        }
+
+        @SuppressWarnings("unchecked")
+        int drain(List<? super E> target, int max) {
+            long h = head.get();
+            if (cachedTail - h <= 0) {
+                cachedTail = tail.get();
+            }
+            int count = (int) Math.min(max, cachedTail - h);
+            for (int i = 0; i < count; i++) {
+                int index = (int) (h + i) & mask;
+                target.add((E) buffer[index]);
+                buffer[index] = null;
+            }
+            if (count > 0) {
+                head.lazySet(h + count);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Bounded multi-producer single-consumer queue: producers claim a slot by CAS on the tail, and a
+     * per-slot sequence number tells the consumer when the slot has been written and the producers when it
+     * has been freed.
+     */
+    static final class MpscRingBuffer<E> {
+        private final Object[] buffer;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private long head;
+
+        MpscRingBuffer(int capacity) {
+            this.buffer = new Object[capacity];
+            this.sequences = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(E item) {
+            while (true) {
+                long t = tail.get();
+                int index = (int) t & mask;
+                long available = sequences.get(index) - t;
+                if (available == 0) {
+                    if (tail.compareAndSet(t, t + 1)) {
+                        buffer[index] = item;
+                        sequences.lazySet(index, t + 1);
+                        return true;
+                    }
+                } else if (available < 0) {
+                    return false;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        int drain(List<? super E> target, int max) {
+            int count = 0;
+            while (count < max) {
+                int index = (int) head & mask;
+                if (sequences.get(index) != head + 1) {
+                    break;
+                }
+                target.add((E) buffer[index]);
+                buffer[index] = null;
+                sequences.lazySet(index, head + buffer.length);
+                head++;
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 
 public class SmartEnergyManagementSystem {
     private static final String HEATING = "Heating"; // Constante para "Heating"
@@ -34,6 +36,48 @@ public class SmartEnergyManagementSystem {
         }
     }
 
+    public static class EnergyRules {
+        static final EnergyRules DEFAULT = new EnergyRules(23, 6, Set.of("Security", "Refrigerator"));
+
+        final int nightStartHour;
+        final int nightEndHour;
+        final Set<String> nightModeExemptions;
+
+        public EnergyRules(int nightStartHour, int nightEndHour, Set<String> nightModeExemptions) {
+            ConfigWatcher.check(nightStartHour >= 0 && nightStartHour <= 23 && nightEndHour >= 0
+                    && nightEndHour <= 23, "Night hours must be in [0, 23]");
+            this.nightStartHour = nightStartHour;
+            this.nightEndHour = nightEndHour;
+            this.nightModeExemptions = Set.copyOf(nightModeExemptions);
+        }
+
+        // La ventana puede cruzar la medianoche (23 - 6) o no (1 - 5)
+        boolean isNight(int hour) {
+            if (nightStartHour > nightEndHour) {
+                return hour >= nightStartHour || hour < nightEndHour;
+            }
+            return hour >= nightStartHour && hour < nightEndHour;
+        }
+
+        public static EnergyRules fromProperties(Properties properties) {
+            String exemptions = properties.getProperty("energy.nightModeExemptions");
+            return new EnergyRules(
+                    ConfigWatcher.getInt(properties, "energy.nightStartHour", DEFAULT.nightStartHour),
+                    ConfigWatcher.getInt(properties, "energy.nightEndHour", DEFAULT.nightEndHour),
+                    exemptions == null ? DEFAULT.nightModeExemptions : ConfigWatcher.splitList(exemptions));
+        }
+    }
+
+    private volatile EnergyRules rules = EnergyRules.DEFAULT;
+
+    public EnergyRules getRules() {
+        return rules;
+    }
+
+    public void updateRules(EnergyRules rules) {
+        this.rules = rules;
+    }
+
     public EnergyManagementResult manageEnergy(double currentPrice, double priceThreshold,
             Map<String, Integer> devicePriorities,
             LocalDateTime currentTime, double currentTemperature, double[] desiredTemperatureRange,
@@ -42,12 +86,13 @@ public class SmartEnergyManagementSystem {
         Map<String, Boolean> deviceStatus = new HashMap<>();
         boolean energySavingMode = false;
         boolean temperatureRegulationActive = false;
+        EnergyRules rules = this.rules; // Una sola lectura volátil por llamada
 
         // Activar modo de ahorro de energía
         energySavingMode = activateEnergySavingMode(currentPrice, priceThreshold, devicePriorities, deviceStatus);
 
         // Modo nocturno
-        applyNightMode(currentTime, devicePriorities, deviceStatus);
+        applyNightMode(currentTime, devicePriorities, deviceStatus, rules);
 
         // Regulación de temperatura
         temperatureRegulationActive = regulateTemperature(currentTemperature, desiredTemperatureRange, deviceStatus);
@@ -63,6 +108,33 @@ public class SmartEnergyManagementSystem {
                 totalEnergyUsedToday);
     }
 
+    public DeviceCatalog newDeviceCatalog(Map<String, Integer> devicePriorities) {
+        return DeviceCatalog.of(devicePriorities, rules.nightModeExemptions);
+    }
+
+    // Igual que manageEnergy con el mapa de prioridades, pero el ahorro de energía y el modo nocturno
+    // cambian grupos completos del catálogo en lugar de recorrer cada dispositivo. Si las exenciones
+    // nocturnas cambiaron desde que se creó el catálogo, se usa una copia agrupada con las actuales
+    public EnergyManagementResult manageEnergy(double currentPrice, double priceThreshold, DeviceCatalog catalog,
+            LocalDateTime currentTime, double currentTemperature, double[] desiredTemperatureRange,
+            double energyUsageLimit, double totalEnergyUsedToday, List<DeviceSchedule> scheduledDevices) {
+
+        EnergyRules rules = this.rules;
+        DeviceCatalog.StatusView deviceStatus =
+                catalog.withNightModeExemptions(rules.nightModeExemptions).newStatusView();
+
+        boolean energySavingMode = activateEnergySavingMode(currentPrice, priceThreshold, deviceStatus);
+        applyNightMode(currentTime, deviceStatus, rules);
+        boolean temperatureRegulationActive = regulateTemperature(currentTemperature, desiredTemperatureRange,
+                deviceStatus);
+        totalEnergyUsedToday = shutDownDevicesAtEnergyLimit(totalEnergyUsedToday, energyUsageLimit,
+                deviceStatus);
+        handleScheduledDevices(currentTime, scheduledDevices, deviceStatus);
+
+        return new EnergyManagementResult(deviceStatus, energySavingMode, temperatureRegulationActive,
+                totalEnergyUsedToday);
+    }
+
     // Método 1: Activar el modo de ahorro de energía
     private boolean activateEnergySavingMode(double currentPrice, double priceThreshold,
             Map<String, Integer> devicePriorities,
@@ -86,18 +158,40 @@ public class SmartEnergyManagementSystem {
         return energySavingMode;
     }
 
-    // Método 2: Aplicar el modo nocturno (11 PM - 6 AM)
+    // Método 2: Aplicar el modo nocturno (11 PM - 6 AM por defecto)
     private void applyNightMode(LocalDateTime currentTime, Map<String, Integer> devicePriorities,
-            Map<String, Boolean> deviceStatus) {
-        if (currentTime.getHour() >= 23 || currentTime.getHour() < 6) {
+            Map<String, Boolean> deviceStatus, EnergyRules rules) {
+        if (rules.isNight(currentTime.getHour())) {
             for (String device : devicePriorities.keySet()) {
-                if (!device.equals("Security") && !device.equals("Refrigerator")) {
+                if (!rules.nightModeExemptions.contains(device)) {
                     deviceStatus.put(device, false);
                 }
             }
         }
     }
 
+    // Método 1 (catálogo): un cambio por grupo de prioridad
+    private boolean activateEnergySavingMode(double currentPrice, double priceThreshold,
+            DeviceCatalog.StatusView deviceStatus) {
+        boolean energySavingMode = currentPrice > priceThreshold;
+        for (int bucket = 0; bucket < deviceStatus.bucketCount(); bucket++) {
+            deviceStatus.setBucket(bucket, !energySavingMode || deviceStatus.priorityOf(bucket) <= 1);
+        }
+        return energySavingMode;
+    }
+
+    // Método 2 (catálogo): los grupos exentos quedan como estaban
+    private void applyNightMode(LocalDateTime currentTime, DeviceCatalog.StatusView deviceStatus,
+            EnergyRules rules) {
+        if (rules.isNight(currentTime.getHour())) {
+            for (int bucket = 0; bucket < deviceStatus.bucketCount(); bucket++) {
+                if (!deviceStatus.isExempt(bucket)) {
+                    deviceStatus.setBucket(bucket, false);
+                }
+            }
+        }
+    }
+
     // Método 3: Regular la temperatura
     private boolean regulateTemperature(double currentTemperature, double[] desiredTemperatureRange,
             Map<String, Boolean> deviceStatus) {
@@ -136,6 +230,33 @@ public class SmartEnergyManagementSystem {
         return totalEnergyUsedToday;
     }
 
+    // Método 4 (catálogo): mismo recorrido por pasadas, pero por grupo mientras el grupo sea uniforme
+    private double shutDownDevicesAtEnergyLimit(double totalEnergyUsedToday, double energyUsageLimit,
+            DeviceCatalog.StatusView deviceStatus) {
+        while (totalEnergyUsedToday >= energyUsageLimit && deviceStatus.containsValue(true)) {
+            for (int bucket = 0; bucket < deviceStatus.bucketCount(); bucket++) {
+                if (deviceStatus.priorityOf(bucket) <= 1) {
+                    deviceStatus.setBucket(bucket, true);
+                } else if (!deviceStatus.isUniform(bucket)) {
+                    for (String device : deviceStatus.devicesIn(bucket)) {
+                        if (deviceStatus.get(device)) {
+                            deviceStatus.put(device, false);
+                            totalEnergyUsedToday -= 1;
+                        } else {
+                            deviceStatus.put(device, true);
+                        }
+                    }
+                } else if (deviceStatus.isBucketOn(bucket)) {
+                    deviceStatus.setBucket(bucket, false);
+                    totalEnergyUsedToday -= deviceStatus.deviceCount(bucket);
+                } else {
+                    deviceStatus.setBucket(bucket, true);
+                }
+            }
+        }
+        return totalEnergyUsedToday;
+    }
+
     // Método 5: Manejar los dispositivos programados
     private void handleScheduledDevices(LocalDateTime currentTime, List<DeviceSchedule> scheduledDevices,
             Map<String, Boolean> deviceStatus) {
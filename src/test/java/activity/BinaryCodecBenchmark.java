@@ -0,0 +1,194 @@
+package activity;
+
+import activity.FlightBookingSystem.BookingResult;
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.Transaction;
+import activity.SmartEnergyManagementSystem.DeviceSchedule;
+import activity.SmartEnergyManagementSystem.EnergyManagementResult;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Encode/decode throughput of {@link BinaryCodec} against a reflection-based JSON baseline, similar to what
+ * a generic serializer does per object. Not part of the test suite; run it with
+ * {@code java -cp target/classes:target/test-classes activity.BinaryCodecBenchmark}.
+ *
+ * <p>Every decoded object is stored in {@link #sink} so the JIT cannot drop the decode as dead code.
+ */
+public class BinaryCodecBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int OPERATIONS = 1_000_000;
+
+    static Object sink;
+
+    public static void main(String[] args) throws Exception {
+        BookingResult booking = new BookingResult(true, 380.5, 0, true);
+        FraudCheckResult fraud = new FraudCheckResult(true, false, true, 70);
+        Transaction transaction = new Transaction(15000.75, LocalDateTime.of(2024, 10, 1, 10, 0), "USA");
+        Map<String, Boolean> deviceStatus = new LinkedHashMap<>();
+        for (String device : new String[]{"Lights", "Heating", "Cooling", "Security", "Refrigerator", "Washer"}) {
+            deviceStatus.put(device, device.length() % 2 == 0);
+        }
+        EnergyManagementResult energy = new EnergyManagementResult(deviceStatus, true, false, 42.5);
+        DeviceSchedule schedule = new DeviceSchedule("Washer", LocalDateTime.of(2024, 10, 1, 22, 30));
+        ByteBuffer direct = ByteBuffer.allocateDirect(256);
+
+        run("BookingResult binary", i -> {
+            direct.clear();
+            BinaryCodec.writeBookingResult(direct, booking);
+            direct.flip();
+            return BinaryCodec.readBookingResult(direct);
+        });
+        run("BookingResult reflection", i -> roundTrip(booking, BookingResult.class));
+
+        run("FraudCheckResult binary", i -> {
+            direct.clear();
+            BinaryCodec.writeFraudCheckResult(direct, fraud);
+            direct.flip();
+            return BinaryCodec.readFraudCheckResult(direct);
+        });
+        run("FraudCheckResult reflection", i -> roundTrip(fraud, FraudCheckResult.class));
+
+        run("Transaction binary", i -> {
+            direct.clear();
+            BinaryCodec.writeTransaction(direct, transaction);
+            direct.flip();
+            return BinaryCodec.readTransaction(direct);
+        });
+        run("Transaction reflection", i -> roundTrip(transaction, Transaction.class));
+
+        run("EnergyManagementResult binary", i -> {
+            direct.clear();
+            BinaryCodec.writeEnergyManagementResult(direct, energy);
+            direct.flip();
+            return BinaryCodec.readEnergyManagementResult(direct);
+        });
+        run("EnergyManagementResult reflection", i -> roundTrip(energy, EnergyManagementResult.class));
+
+        run("DeviceSchedule binary", i -> {
+            direct.clear();
+            BinaryCodec.writeDeviceSchedule(direct, schedule);
+            direct.flip();
+            return BinaryCodec.readDeviceSchedule(direct);
+        });
+        run("DeviceSchedule reflection", i -> roundTrip(schedule, DeviceSchedule.class));
+    }
+
+    private static void run(String name, IntFunction<Object> operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                sink = operation.apply(i);
+            }
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                sink = operation.apply(i);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-34s %,14.0f round trips/s%n", name, MEASURED_ROUNDS * OPERATIONS / seconds);
+    }
+
+    // Referencia: campos leídos y escritos por reflexión, serializados como JSON en UTF-8
+    private static <T> T roundTrip(T value, Class<T> type) {
+        try {
+            byte[] json = toJson(value).getBytes(StandardCharsets.UTF_8);
+            return fromJson(new String(json, StandardCharsets.UTF_8), type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toJson(Object value) throws IllegalAccessException {
+        StringBuilder json = new StringBuilder("{");
+        for (Field field : value.getClass().getDeclaredFields()) {
+            field.setAccessible(true);
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            Object fieldValue = field.get(value);
+            json.append('"').append(field.getName()).append("\":");
+            if (fieldValue instanceof String || fieldValue instanceof LocalDateTime) {
+                json.append('"').append(fieldValue).append('"');
+            } else if (fieldValue instanceof Map<?, ?> map) {
+                json.append('{');
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (json.charAt(json.length() - 1) != '{') {
+                        json.append(',');
+                    }
+                    json.append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+                }
+                json.append('}');
+            } else {
+                json.append(fieldValue);
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static <T> T fromJson(String json, Class<T> type) throws ReflectiveOperationException {
+        T value = allocate(type);
+        int position = 1;
+        while (position < json.length() - 1) {
+            int colon = json.indexOf(':', position);
+            String name = json.substring(position + 1, colon - 1);
+            // Un mapa anidado termina en su llave; los demás valores, en la siguiente coma
+            int end = json.charAt(colon + 1) == '{' ? json.indexOf('}', colon) + 1 : json.indexOf(',', colon);
+            if (end < 0) {
+                end = json.length() - 1;
+            }
+            String raw = json.substring(colon + 1, end);
+            position = end + 1;
+
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            Class<?> fieldType = field.getType();
+            if (fieldType == boolean.class) {
+                field.setBoolean(value, Boolean.parseBoolean(raw));
+            } else if (fieldType == int.class) {
+                field.setInt(value, Integer.parseInt(raw));
+            } else if (fieldType == double.class) {
+                field.setDouble(value, Double.parseDouble(raw));
+            } else if (fieldType == LocalDateTime.class) {
+                field.set(value, LocalDateTime.parse(raw.substring(1, raw.length() - 1)));
+            } else if (fieldType == Map.class) {
+                Map<String, Boolean> map = new LinkedHashMap<>();
+                if (raw.length() > 2) {
+                    for (String pair : raw.substring(1, raw.length() - 1).split(",")) {
+                        int separator = pair.indexOf(':');
+                        map.put(pair.substring(1, separator - 1), Boolean.parseBoolean(pair.substring(separator + 1)));
+                    }
+                }
+                field.set(value, map);
+            } else {
+                field.set(value, raw.substring(1, raw.length() - 1));
+            }
+        }
+        return value;
+    }
+
+    private static <T> T allocate(Class<T> type) throws ReflectiveOperationException {
+        // Las clases de resultado no tienen constructor vacío; se usa el primero con valores por defecto
+        var constructor = type.getDeclaredConstructors()[0];
+        Class<?>[] parameters = constructor.getParameterTypes();
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] == boolean.class) {
+                arguments[i] = false;
+            } else if (parameters[i] == int.class) {
+                arguments[i] = 0;
+            } else if (parameters[i] == double.class) {
+                arguments[i] = 0.0;
+            }
+        }
+        return type.cast(constructor.newInstance(arguments));
+    }
+}
@@ -0,0 +1,136 @@
+package activity;
+
+import activity.FlightBookingSystem.BookingResult;
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.Transaction;
+import activity.SmartEnergyManagementSystem.DeviceSchedule;
+import activity.SmartEnergyManagementSystem.EnergyManagementResult;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+
+    // 1. Prueba de ida y vuelta de BookingResult en un buffer directo
+    @Test
+    void testBookingResultRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BinaryCodec.BOOKING_RESULT_BYTES);
+        BinaryCodec.writeBookingResult(buffer, new BookingResult(true, 380.5, 12.25, true));
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        BookingResult result = BinaryCodec.readBookingResult(buffer);
+
+        assertTrue(result.confirmation);
+        assertEquals(380.5, result.totalPrice);
+        assertEquals(12.25, result.refundAmount);
+        assertTrue(result.pointsUsed);
+    }
+
+    // 2. Prueba de ida y vuelta de FraudCheckResult con orden little-endian
+    @Test
+    void testFraudCheckResultRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.FRAUD_RESULT_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        BinaryCodec.writeFraudCheckResult(buffer, new FraudCheckResult(false, true, true, 80, true));
+        buffer.flip();
+
+        FraudCheckResult result = BinaryCodec.readFraudCheckResult(buffer);
+
+        assertFalse(result.isFraudulent);
+        assertTrue(result.isBlocked);
+        assertTrue(result.verificationRequired);
+        assertEquals(80, result.riskScore);
+        assertTrue(result.degraded);
+    }
+
+    // 3. Prueba de ida y vuelta de EnergyManagementResult
+    @Test
+    void testEnergyManagementResultRoundTrip() {
+        Map<String, Boolean> deviceStatus = new HashMap<>();
+        deviceStatus.put("Heating", true);
+        deviceStatus.put("Lights", false);
+        deviceStatus.put("Calefacción", true);
+        EnergyManagementResult original = new EnergyManagementResult(deviceStatus, true, false, 42.5);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BinaryCodec.sizeOf(original));
+        BinaryCodec.writeEnergyManagementResult(buffer, original);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        EnergyManagementResult result = BinaryCodec.readEnergyManagementResult(buffer);
+
+        assertEquals(deviceStatus, result.deviceStatus);
+        assertTrue(result.energySavingMode);
+        assertFalse(result.temperatureRegulationActive);
+        assertEquals(42.5, result.totalEnergyUsed);
+    }
+
+    // 4. Prueba de ida y vuelta de las entradas, incluidos valores nulos
+    @Test
+    void testInputsRoundTrip() {
+        LocalDateTime time = LocalDateTime.of(2024, 10, 1, 23, 30, 15, 123_000_000);
+        Transaction transaction = new Transaction(15000.75, time, "USA");
+        Transaction noLocation = new Transaction(1, null, null);
+        DeviceSchedule schedule = new DeviceSchedule("Washer", time);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.sizeOf(transaction) + BinaryCodec.sizeOf(noLocation)
+                + BinaryCodec.sizeOf(schedule));
+        BinaryCodec.writeTransaction(buffer, transaction);
+        BinaryCodec.writeTransaction(buffer, noLocation);
+        BinaryCodec.writeDeviceSchedule(buffer, schedule);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        Transaction first = BinaryCodec.readTransaction(buffer);
+        Transaction second = BinaryCodec.readTransaction(buffer);
+        DeviceSchedule third = BinaryCodec.readDeviceSchedule(buffer);
+
+        assertEquals(15000.75, first.amount);
+        assertEquals(time, first.timestamp);
+        assertEquals("USA", first.location);
+        assertNull(second.timestamp);
+        assertNull(second.location);
+        assertEquals("Washer", third.deviceName);
+        assertEquals(time, third.scheduledTime);
+    }
+
+    // 5. Prueba de que un texto repetido se devuelve desde la caché sin crear otro String
+    @Test
+    void testRepeatedStringIsReused() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(3 * BinaryCodec.sizeOf("Refrigerator"));
+        BinaryCodec.writeString(buffer, "Refrigerator");
+        BinaryCodec.writeString(buffer, "Refrigerator");
+        BinaryCodec.writeString(buffer, "Refrigerated");
+        buffer.flip();
+
+        String first = BinaryCodec.readString(buffer);
+        String second = BinaryCodec.readString(buffer);
+        String third = BinaryCodec.readString(buffer);
+
+        assertSame(first, second);
+        assertEquals("Refrigerated", third);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void testNullDeviceStatusIsRejected() {
+        Map<String, Boolean> deviceStatus = new HashMap<>();
+        deviceStatus.put("Lights", null);
+        EnergyManagementResult result = new EnergyManagementResult(deviceStatus, false, false, 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryCodec.writeEnergyManagementResult(ByteBuffer.allocate(64), result));
+    }
+
+    @Test
+    void testCorruptStringLengthIsRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.putInt(1000).flip();
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.readString(buffer));
+    }
+}
@@ -0,0 +1,196 @@
+package activity;
+
+import activity.FlightBookingSystem.BookingRules;
+import activity.FraudDetectionSystem.FraudRules;
+import activity.SmartEnergyManagementSystem.EnergyRules;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    // 1. Prueba de carga inicial del archivo
+    @Test
+    void testInitialLoad() throws IOException {
+        Path file = tempDir.resolve("fraud.properties");
+        Files.write(file, List.of("fraud.amountThreshold=5000", "fraud.recentWindowMinutes=15"));
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+
+        try (ConfigWatcher<FraudRules> watcher =
+                     new ConfigWatcher<>(file, FraudRules::fromProperties, fraudSystem::updateRules)) {
+            watcher.start();
+
+            assertEquals(5000, fraudSystem.getRules().amountThreshold);
+            assertEquals(15, fraudSystem.getRules().recentWindowMinutes);
+            assertEquals(10, fraudSystem.getRules().maxRecentTransactions);
+        }
+    }
+
+    // 2. Prueba de recarga en caliente al modificar el archivo
+    @Test
+    void testHotReloadOnFileChange() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("booking.properties");
+        Files.write(file, List.of("booking.lastMinuteFee=100"));
+        FlightBookingSystem bookingSystem = new FlightBookingSystem();
+
+        try (ConfigWatcher<BookingRules> watcher =
+                     new ConfigWatcher<>(file, BookingRules::fromProperties, bookingSystem::updateRules)) {
+            watcher.start();
+            Files.write(file, List.of("booking.lastMinuteFee=250"));
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (bookingSystem.getRules().lastMinuteFee != 250 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(250, bookingSystem.getRules().lastMinuteFee);
+        }
+    }
+
+    // 3. Prueba de que un archivo inválido conserva la configuración anterior
+    @Test
+    void testInvalidFileKeepsPreviousSnapshot() throws IOException {
+        Path file = tempDir.resolve("energy.properties");
+        Files.write(file, List.of("energy.nightStartHour=22"));
+        SmartEnergyManagementSystem energySystem = new SmartEnergyManagementSystem();
+        ConfigWatcher<EnergyRules> watcher =
+                new ConfigWatcher<>(file, EnergyRules::fromProperties, energySystem::updateRules);
+
+        assertTrue(watcher.reload());
+        Files.write(file, List.of("energy.nightStartHour=late"));
+        assertFalse(watcher.reload());
+
+        assertEquals(22, energySystem.getRules().nightStartHour);
+        assertEquals(1, watcher.getFailedReloads());
+    }
+
+    // 4. Prueba de que la configuración sale sólo del archivo: una clave borrada vuelve al valor por defecto
+    @Test
+    void testDeletedKeyFallsBackToDefault() throws IOException {
+        Path file = tempDir.resolve("fraud.properties");
+        Files.write(file, List.of("fraud.amountThreshold=5000", "fraud.maxRecentTransactions=3"));
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        ConfigWatcher<FraudRules> watcher =
+                new ConfigWatcher<>(file, FraudRules::fromProperties, fraudSystem::updateRules);
+        assertTrue(watcher.reload());
+
+        Files.write(file, List.of("fraud.amountThreshold=6000"));
+        assertTrue(watcher.reload());
+
+        assertEquals(6000, fraudSystem.getRules().amountThreshold);
+        assertEquals(FraudRules.DEFAULT.maxRecentTransactions, fraudSystem.getRules().maxRecentTransactions);
+    }
+
+    // 5. Prueba de que un reemplazo atómico por renombrado se recarga
+    @Test
+    void testAtomicRenameIsReloaded() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("fraud.properties");
+        Files.write(file, List.of("fraud.amountThreshold=5000"));
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+
+        try (ConfigWatcher<FraudRules> watcher =
+                     new ConfigWatcher<>(file, FraudRules::fromProperties, fraudSystem::updateRules)) {
+            watcher.start();
+            Path temp = tempDir.resolve("fraud.properties.tmp");
+            Files.write(temp, List.of("fraud.amountThreshold=7000"));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (fraudSystem.getRules().amountThreshold != 7000 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(7000, fraudSystem.getRules().amountThreshold);
+        }
+    }
+
+    // 6. Prueba de que una escritura en curso no se publica a medias
+    @Test
+    void testFileStillBeingWrittenIsNotPublished() throws Exception {
+        Path file = tempDir.resolve("fraud.properties");
+        Files.write(file, List.of("fraud.amountThreshold=5000"));
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        ConfigWatcher<FraudRules> watcher =
+                new ConfigWatcher<>(file, FraudRules::fromProperties, fraudSystem::updateRules);
+        assertTrue(watcher.reload());
+
+        // Un escritor que cambia el archivo cada pocos milisegundos mientras dura la recarga
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 1; reloading.get(); i++) {
+                    Files.write(file, ("fraud.amountThreshold=" + i).getBytes());
+                    Thread.sleep(5);
+                }
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        boolean reloaded = watcher.reload();
+        reloading.set(false);
+        writer.join();
+
+        assertFalse(reloaded);
+
+        assertEquals(5000, fraudSystem.getRules().amountThreshold);
+    }
+
+    // 7. Prueba de que los valores fuera de rango no se publican
+    @Test
+    void testOutOfRangeValuesKeepPreviousSnapshot() throws IOException {
+        Path file = tempDir.resolve("rules.properties");
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        FlightBookingSystem bookingSystem = new FlightBookingSystem();
+        SmartEnergyManagementSystem energySystem = new SmartEnergyManagementSystem();
+        ConfigWatcher<FraudRules> fraudWatcher =
+                new ConfigWatcher<>(file, FraudRules::fromProperties, fraudSystem::updateRules);
+        ConfigWatcher<BookingRules> bookingWatcher =
+                new ConfigWatcher<>(file, BookingRules::fromProperties, bookingSystem::updateRules);
+        ConfigWatcher<EnergyRules> energyWatcher =
+                new ConfigWatcher<>(file, EnergyRules::fromProperties, energySystem::updateRules);
+
+        Files.write(file, List.of("energy.nightStartHour=25", "booking.groupDiscountFactor=-1",
+                "fraud.recentWindowMinutes=-5"));
+
+        assertFalse(fraudWatcher.reload());
+        assertFalse(bookingWatcher.reload());
+        assertFalse(energyWatcher.reload());
+        assertSame(FraudRules.DEFAULT, fraudSystem.getRules());
+        assertSame(BookingRules.DEFAULT, bookingSystem.getRules());
+        assertSame(EnergyRules.DEFAULT, energySystem.getRules());
+    }
+
+    @Test
+    void testRulesConstructorsRejectInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> new FraudRules(Double.NaN, 10, 60, 30));
+        assertThrows(IllegalArgumentException.class, () -> new FraudRules(10000, 10, 60, 30, 10, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> new BookingRules(24, 100, 0, 0.95, 48, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new BookingRules(24, 100, 4, 0.95, 48, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new EnergyRules(23, -1, Set.of()));
+    }
+
+    @Test
+    void testEnergyRulesFromProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("energy.nightModeExemptions", "Security, Router");
+
+        EnergyRules rules = EnergyRules.fromProperties(properties);
+
+        assertEquals(Set.of("Security", "Router"), rules.nightModeExemptions);
+        assertEquals(23, rules.nightStartHour);
+        assertTrue(rules.isNight(2));
+        assertFalse(rules.isNight(12));
+    }
+}
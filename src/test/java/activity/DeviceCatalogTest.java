@@ -0,0 +1,186 @@
+package activity;
+
+import activity.SmartEnergyManagementSystem.DeviceSchedule;
+import activity.SmartEnergyManagementSystem.EnergyManagementResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceCatalogTest {
+
+    // 1. Prueba de agrupación por prioridad y exención
+    @Test
+    void testDevicesAreGroupedIntoBuckets() {
+        DeviceCatalog catalog = new DeviceCatalog(Set.of("Security", "Refrigerator"));
+        for (int i = 0; i < 1000; i++) {
+            catalog.register("Sensor" + i, 1 + i % 3);
+        }
+        catalog.register("Security", 1);
+        catalog.register("Refrigerator", 1);
+
+        assertEquals(1002, catalog.size());
+        assertEquals(4, catalog.bucketCount());
+    }
+
+    // 2. Prueba de cambio de prioridad de un dispositivo ya registrado
+    @Test
+    void testReRegisterMovesDevice() {
+        DeviceCatalog catalog = new DeviceCatalog(Set.of());
+        catalog.register("Lights", 1);
+        catalog.register("Lights", 3);
+
+        assertEquals(1, catalog.size());
+        assertTrue(catalog.devicesIn(catalog.bucketOf("Lights")).contains("Lights"));
+        assertEquals(3, catalog.priorityOf(catalog.bucketOf("Lights")));
+    }
+
+    // 3. Prueba de la vista de estado: la escritura más reciente gana
+    @Test
+    void testStatusViewLatestWriteWins() {
+        DeviceCatalog catalog = new DeviceCatalog(Set.of());
+        catalog.register("Lights", 2);
+        catalog.register("Heating", 2);
+        DeviceCatalog.StatusView status = catalog.newStatusView();
+
+        status.setBucket(0, true);
+        status.put("Heating", false);
+        status.put("Fan", true);
+        assertTrue(status.get("Lights"));
+        assertFalse(status.get("Heating"));
+        assertEquals(3, status.size());
+        assertFalse(status.isUniform(0));
+
+        status.setBucket(0, false);
+        assertFalse(status.get("Lights"));
+        assertFalse(status.get("Heating"));
+        assertTrue(status.isUniform(0));
+        assertTrue(status.containsValue(true)); // Fan
+        assertEquals(Map.of("Lights", false, "Heating", false, "Fan", true), new HashMap<>(status));
+    }
+
+    // 4. Prueba de equivalencia con el cálculo por mapa de prioridades
+    @Test
+    void testCatalogMatchesPriorityMap() {
+        SmartEnergyManagementSystem energySystem = new SmartEnergyManagementSystem();
+        Random random = new Random(11);
+
+        for (int run = 0; run < 200; run++) {
+            Map<String, Integer> devicePriorities = new HashMap<>();
+            devicePriorities.put("Security", 1);
+            devicePriorities.put("Refrigerator", 1 + random.nextInt(3));
+            if (random.nextBoolean()) {
+                devicePriorities.put("Heating", 1 + random.nextInt(3));
+            }
+            // Al menos un dispositivo de baja prioridad, sin él el recorte por límite de energía no termina
+            devicePriorities.put("Device0", 2);
+            int devices = 1 + random.nextInt(20);
+            for (int i = 1; i < devices; i++) {
+                devicePriorities.put("Device" + i, 1 + random.nextInt(4));
+            }
+            LocalDateTime time = LocalDateTime.of(2024, 10, 1, random.nextInt(24), 0);
+            List<DeviceSchedule> schedules = new ArrayList<>();
+            schedules.add(new DeviceSchedule("Device0", time));
+            double price = random.nextDouble() * 0.4;
+            double temperature = 15 + random.nextDouble() * 15;
+            double used = random.nextDouble() * 80;
+
+            EnergyManagementResult expected = energySystem.manageEnergy(price, 0.20, devicePriorities, time,
+                    temperature, new double[]{20.0, 24.0}, 50, used, schedules);
+            EnergyManagementResult actual = energySystem.manageEnergy(price, 0.20,
+                    energySystem.newDeviceCatalog(devicePriorities), time, temperature, new double[]{20.0, 24.0},
+                    50, used, schedules);
+
+            assertEquals(expected.deviceStatus, actual.deviceStatus);
+            assertEquals(expected.energySavingMode, actual.energySavingMode);
+            assertEquals(expected.temperatureRegulationActive, actual.temperatureRegulationActive);
+            assertEquals(expected.totalEnergyUsed, actual.totalEnergyUsed);
+        }
+    }
+
+    // 5. Prueba de que el catálogo sigue las exenciones recargadas con updateRules
+    @Test
+    void testCatalogFollowsReloadedExemptions() {
+        SmartEnergyManagementSystem energySystem = new SmartEnergyManagementSystem();
+        Map<String, Integer> devicePriorities = new HashMap<>();
+        devicePriorities.put("Security", 1);
+        devicePriorities.put("Router", 1);
+        devicePriorities.put("Lights", 2);
+        DeviceCatalog catalog = energySystem.newDeviceCatalog(devicePriorities);
+        LocalDateTime night = LocalDateTime.of(2024, 10, 1, 2, 0);
+
+        energySystem.updateRules(new SmartEnergyManagementSystem.EnergyRules(23, 6, Set.of("Router")));
+        EnergyManagementResult expected = energySystem.manageEnergy(0.1, 0.2, devicePriorities, night, 22,
+                new double[]{20.0, 24.0}, 100, 10, new ArrayList<>());
+        EnergyManagementResult actual = energySystem.manageEnergy(0.1, 0.2, catalog, night, 22,
+                new double[]{20.0, 24.0}, 100, 10, new ArrayList<>());
+
+        assertEquals(expected.deviceStatus, actual.deviceStatus);
+        assertTrue(actual.deviceStatus.get("Router"));
+        assertFalse(actual.deviceStatus.get("Security"));
+        // La copia reagrupada se reutiliza mientras las exenciones no cambien
+        assertSame(catalog.withNightModeExemptions(energySystem.getRules().nightModeExemptions),
+                catalog.withNightModeExemptions(energySystem.getRules().nightModeExemptions));
+    }
+
+    // 6. Prueba de que un resultado no cambia al registrar dispositivos después
+    @Test
+    void testResultIsNotAffectedByLaterRegister() {
+        SmartEnergyManagementSystem energySystem = new SmartEnergyManagementSystem();
+        DeviceCatalog catalog = new DeviceCatalog(energySystem.getRules().nightModeExemptions);
+        catalog.register("Lights", 2);
+        catalog.register("Washer", 2);
+        EnergyManagementResult result = energySystem.manageEnergy(0.1, 0.2, catalog,
+                LocalDateTime.of(2024, 10, 1, 12, 0), 22, new double[]{20.0, 24.0}, 100, 10, new ArrayList<>());
+        Map<String, Boolean> before = new HashMap<>(result.deviceStatus);
+
+        catalog.register("Dryer", 2);
+        catalog.register("Lights", 1);
+
+        assertEquals(before, new HashMap<>(result.deviceStatus));
+        assertFalse(result.deviceStatus.containsKey("Dryer"));
+        assertEquals(3, catalog.size());
+    }
+
+    // 7. Prueba de que registrar muchos dispositivos no copia el catálogo en cada alta
+    @Test
+    @Timeout(10)
+    void testManyRegistrationsStayFast() {
+        SmartEnergyManagementSystem energySystem = new SmartEnergyManagementSystem();
+        DeviceCatalog catalog = new DeviceCatalog(energySystem.getRules().nightModeExemptions);
+        LocalDateTime noon = LocalDateTime.of(2024, 10, 1, 12, 0);
+        EnergyManagementResult early = null;
+        int earlySize = 0;
+        for (int i = 0; i < 100_000; i++) {
+            catalog.register("Device" + i, 1 + i % 3);
+            if (i == 999) {
+                early = energySystem.manageEnergy(0.1, 0.2, catalog, noon, 22, new double[]{20.0, 24.0},
+                        1_000_000, 0, new ArrayList<>());
+                earlySize = early.deviceStatus.size();
+            }
+        }
+        // Cambiar de prioridad a la mitad retira las entradas anteriores sin recorrer su grupo
+        for (int i = 0; i < 50_000; i++) {
+            catalog.register("Device" + i, 1 + (i + 1) % 3);
+        }
+
+        assertEquals(100_000, catalog.size());
+        assertEquals(earlySize, early.deviceStatus.size());
+        assertTrue(early.deviceStatus.containsKey("Device0"));
+        assertFalse(early.deviceStatus.containsKey("Device1000"));
+        assertEquals(2, catalog.priorityOf(catalog.bucketOf("Device0")));
+        int total = 0;
+        for (int b = 0; b < catalog.bucketCount(); b++) {
+            total += catalog.devicesIn(b).size();
+        }
+        assertEquals(100_000, total);
+    }
+}
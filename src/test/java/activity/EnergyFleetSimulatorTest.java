@@ -0,0 +1,71 @@
+package activity;
+
+import activity.EnergyFleetSimulator.SimulationConfig;
+import activity.EnergyFleetSimulator.SimulationReport;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnergyFleetSimulatorTest {
+
+    private static SimulationConfig config(int buildings, double demandResponseFactor, int threads) {
+        return new SimulationConfig(buildings, 96, LocalDateTime.of(2024, 7, 15, 0, 0), 0.20, 68, 80,
+                demandResponseFactor, 7, threads);
+    }
+
+    // 1. Prueba de reproducibilidad con distinto número de hilos
+    @Test
+    void testSimulationIsDeterministicAcrossThreads() {
+        EnergyFleetSimulator simulator = new EnergyFleetSimulator(new SmartEnergyManagementSystem());
+
+        SimulationReport single = simulator.run(config(300, 3.0, 1));
+        SimulationReport parallel = simulator.run(config(300, 3.0, 4));
+
+        assertArrayEquals(single.loadPerTick, parallel.loadPerTick);
+        assertEquals(single.peakLoad, parallel.peakLoad);
+        assertEquals(single.peakTick, parallel.peakTick);
+        assertEquals(single.energyShed, parallel.energyShed);
+    }
+
+    // 2. Prueba de que el evento de respuesta a la demanda reduce la carga
+    @Test
+    void testDemandResponseEventShedsLoad() {
+        EnergyFleetSimulator simulator = new EnergyFleetSimulator(new SmartEnergyManagementSystem());
+
+        SimulationReport withoutEvent = simulator.run(config(200, 1.0, 2));
+        SimulationReport withEvent = simulator.run(config(200, 3.0, 2));
+
+        assertTrue(withEvent.energyShed > withoutEvent.energyShed);
+        double eventLoad = 0;
+        double normalLoad = 0;
+        for (int t = 68; t < 80; t++) {
+            eventLoad += withEvent.loadPerTick[t];
+            normalLoad += withoutEvent.loadPerTick[t];
+        }
+        assertTrue(eventLoad < normalLoad);
+    }
+
+    @Test
+    void testReportCoversEveryTick() {
+        SimulationReport report = new EnergyFleetSimulator(new SmartEnergyManagementSystem()).run(config(10, 3.0, 1));
+
+        assertEquals(96, report.loadPerTick.length);
+        assertTrue(report.peakLoad > 0);
+        assertTrue(report.energyUsed > 0);
+        assertTrue(report.computeNanosPerBuildingTick() > 0);
+    }
+
+    @Test
+    void testInvalidConfigIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> config(0, 1.0, 1));
+        LocalDateTime start = LocalDateTime.of(2024, 7, 15, 0, 0);
+        // 100 y 2880 ticks no dan minutos enteros: el reloj no llegaría a las 24:00
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimulationConfig(10, 100, start, 0.20, 0, 0, 1.0, 42, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimulationConfig(10, 2880, start, 0.20, 0, 0, 1.0, 42, 1));
+        assertEquals(1, new SimulationConfig(10, 1440, start, 0.20, 0, 0, 1.0, 42, 1).tickMinutes());
+    }
+}
@@ -130,6 +130,14 @@ void testBookingWithPassengersJustOverSeatLimit() {
     assertFalse(result.confirmation); // Reserva debe fallar
 }
 
+    @Test
+    void testUpdatedRulesApplyToNextBooking() {
+        FlightBookingSystem bookingSystem = new FlightBookingSystem();
+        bookingSystem.updateRules(new FlightBookingSystem.BookingRules(24, 250, 4, 0.95, 48, 0.5));
+        BookingResult result = bookingSystem.bookFlight(1, LocalDateTime.now(), 100, 500.00, 50, false, LocalDateTime.now().plusHours(12), 0);
 
+        // Verifica que se aplica la nueva tarifa de última hora
+        assertEquals((500.00 * (50 / 100.0) * 0.8) + 250, result.totalPrice);
+    }
 
 }
@@ -0,0 +1,129 @@
+package activity;
+
+import activity.FlightBookingSystem.BookingResult;
+import activity.FlightIndex.Quote;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 10, 1, 8, 0);
+
+    private static FlightIndex sampleIndex() {
+        FlightIndex index = new FlightIndex(new FlightBookingSystem());
+        index.addFlight("LA100", "GRU", "CMP", NOW.plusHours(12), 100, 500.00, 50);
+        index.addFlight("LA200", "GRU", "CMP", NOW.plusDays(3), 3, 400.00, 80);
+        index.addFlight("LA300", "GRU", "CMP", NOW.plusDays(3), 50, 450.00, 60);
+        index.addFlight("LA400", "GRU", "CMP", NOW.plusDays(10), 50, 300.00, 10);
+        index.addFlight("AZ500", "CMP", "GRU", NOW.plusDays(3), 50, 300.00, 10);
+        return index;
+    }
+
+    // 1. Prueba de búsqueda por ruta y rango de salida, con precios de bookFlight
+    @Test
+    void testSearchReturnsPricedFlightsInRange() {
+        FlightIndex index = sampleIndex();
+
+        List<Quote> quotes = index.search("GRU", "CMP", NOW, NOW.plusDays(5), 2, NOW);
+
+        assertEquals(3, quotes.size());
+        assertEquals("LA100", quotes.get(0).flightId);
+        assertEquals("LA200", quotes.get(1).flightId);
+        assertEquals("LA300", quotes.get(2).flightId);
+        BookingResult expected = new FlightBookingSystem().bookFlight(2, NOW, 100, 500.00, 50, false,
+                NOW.plusHours(12), 0);
+        assertEquals(expected.totalPrice, quotes.get(0).totalPrice); // Incluye la tarifa de última hora
+    }
+
+    // 2. Prueba de que se excluyen vuelos sin asientos suficientes
+    @Test
+    void testSearchSkipsFlightsWithoutSeats() {
+        FlightIndex index = sampleIndex();
+
+        List<Quote> quotes = index.search("GRU", "CMP", NOW.plusDays(3), NOW.plusDays(3), 5, NOW);
+
+        assertEquals(1, quotes.size());
+        assertEquals("LA300", quotes.get(0).flightId);
+        assertTrue(index.search("GRU", "XXX", NOW, NOW.plusDays(30), 1, NOW).isEmpty());
+    }
+
+    // 3. Prueba de actualización y eliminación de vuelos
+    @Test
+    void testInventoryUpdatesAreVisibleToSearch() {
+        FlightIndex index = sampleIndex();
+
+        index.updateInventory("LA400", 0, 300.00, 60);
+        assertTrue(index.removeFlight("LA100"));
+        List<Quote> quotes = index.search("GRU", "CMP", NOW, NOW.plusDays(30), 1, NOW);
+
+        assertEquals(List.of("LA200", "LA300"), quotes.stream().map(q -> q.flightId).toList());
+        assertFalse(index.removeFlight("LA100"));
+        assertThrows(IllegalArgumentException.class, () -> index.addFlight("LA200", "GRU", "CMP", NOW, 1, 1, 1));
+    }
+
+    // 4. Prueba de reservas concurrentes: nunca se venden más asientos de los disponibles
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        FlightIndex index = new FlightIndex(new FlightBookingSystem());
+        index.addFlight("LA100", "GRU", "CMP", NOW.plusDays(3), 1000, 500.00, 50);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicBoolean readerFailed = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 400; i++) {
+                    if (index.reserveSeats("LA100", 1)) {
+                        reserved.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    for (Quote quote : index.search("GRU", "CMP", NOW, NOW.plusDays(5), 1, NOW)) {
+                        if (quote.availableSeats < 0 || quote.availableSeats > 1000) {
+                            readerFailed.set(true);
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1000, reserved.get());
+        assertEquals(0, index.availableSeats("LA100"));
+        assertFalse(readerFailed.get());
+    }
+
+    // 5. Prueba de búsqueda con los extremos de LocalDateTime como rango abierto
+    @Test
+    void testSearchAcceptsUnboundedRange() {
+        FlightIndex index = sampleIndex();
+        index.addFlight("LA900", "GRU", "CMP", LocalDateTime.MAX, 50, 300.00, 10);
+
+        List<Quote> quotes = index.search("GRU", "CMP", LocalDateTime.MIN, LocalDateTime.MAX, 2, NOW);
+
+        assertEquals(5, quotes.size());
+        assertEquals("LA900", quotes.get(4).flightId);
+        // El límite superior incluye todos los vuelos del instante, sea cual sea su id
+        assertEquals(2, index.search("GRU", "CMP", NOW.plusDays(3), NOW.plusDays(3), 2, NOW).size());
+    }
+}
@@ -0,0 +1,181 @@
+package activity;
+
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FraudAdmissionControllerTest {
+
+    private static final long TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // Historial con más de 10 transacciones en la última hora: el camino completo bloquea
+    private static List<Transaction> busyHistory(LocalDateTime now) {
+        List<Transaction> previousTransactions = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            previousTransactions.add(new Transaction(100, now.minusMinutes(30 + i), "USA"));
+        }
+        return previousTransactions;
+    }
+
+    // 1. Prueba de que bajo el límite se usa el análisis completo
+    @Test
+    void testAdmittedCheckUsesFullRules() {
+        FraudAdmissionController controller =
+                new FraudAdmissionController(new FraudDetectionSystem(), TARGET_NANOS, 4, 1, 64, 0.9);
+        LocalDateTime now = LocalDateTime.now();
+
+        FraudCheckResult result = controller.checkForFraud(new Transaction(5000, now, "USA"), busyHistory(now),
+                new ArrayList<>());
+
+        assertTrue(result.isBlocked);
+        assertEquals(30, result.riskScore);
+        assertFalse(result.degraded);
+        assertEquals(1, controller.getAdmittedCount());
+        assertEquals(0, controller.getInFlight());
+    }
+
+    // 2. Prueba de que por encima del límite se responde con el camino degradado
+    @Test
+    void testOverloadFallsBackToFastPath() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FraudDetectionSystem slowSystem = new FraudDetectionSystem() {
+            @Override
+            public FraudCheckResult checkForFraud(Transaction currentTransaction,
+                                                  List<Transaction> previousTransactions,
+                                                  List<String> blacklistedLocations) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.checkForFraud(currentTransaction, previousTransactions, blacklistedLocations);
+            }
+        };
+        FraudAdmissionController controller =
+                new FraudAdmissionController(slowSystem, TimeUnit.SECONDS.toNanos(10), 1, 1, 64, 0.9);
+        LocalDateTime now = LocalDateTime.now();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<FraudCheckResult> first = executor.submit(() -> controller.checkForFraud(
+                new Transaction(5000, now, "USA"), busyHistory(now), new ArrayList<>()));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        FraudCheckResult shed = controller.checkForFraud(new Transaction(15000, now, "HighRisk"), busyHistory(now),
+                List.of("HighRisk"));
+        release.countDown();
+
+        // Sólo monto y lista negra, sin revisar el historial
+        assertTrue(shed.degraded);
+        assertTrue(shed.isFraudulent);
+        assertTrue(shed.isBlocked);
+        assertEquals(100, shed.riskScore);
+        assertFalse(first.get(5, TimeUnit.SECONDS).degraded);
+        assertEquals(1, controller.getDegradedCount());
+        executor.shutdown();
+    }
+
+    // 3. Prueba del ajuste AIMD del límite
+    @Test
+    void testLimitAdaptsToLatency() {
+        FraudAdmissionController controller =
+                new FraudAdmissionController(new FraudDetectionSystem(), TARGET_NANOS, 10, 2, 20, 0.5);
+
+        controller.onSample(System.nanoTime(), TARGET_NANOS * 2);
+        assertEquals(5, controller.getLimit(), 1e-9);
+        controller.onSample(System.nanoTime(), TARGET_NANOS * 2);
+        controller.onSample(System.nanoTime(), TARGET_NANOS * 2);
+        assertEquals(2, controller.getLimit(), 1e-9); // No baja del mínimo
+
+        controller.onSample(System.nanoTime(), TARGET_NANOS / 2);
+        assertEquals(2.5, controller.getLimit(), 1e-9);
+        for (int i = 0; i < 10_000; i++) {
+            controller.onSample(System.nanoTime(), 0);
+        }
+        assertEquals(20, controller.getLimit(), 1e-9); // No sube del máximo
+    }
+
+    // 4. Prueba de que varias muestras lentas simultáneas bajan el límite una sola vez
+    @Test
+    void testConcurrentSlowSamplesBackOffOnce() throws Exception {
+        FraudAdmissionController controller =
+                new FraudAdmissionController(new FraudDetectionSystem(), TARGET_NANOS, 16, 1, 20, 0.5);
+        int threads = 8;
+        long start = System.nanoTime();
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                controller.onSample(start, TARGET_NANOS * 2);
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(8, controller.getLimit(), 1e-9);
+        // Una muestra lenta que empieza después de la bajada vuelve a bajarlo
+        controller.onSample(System.nanoTime(), TARGET_NANOS * 2);
+        assertEquals(4, controller.getLimit(), 1e-9);
+    }
+
+    @Test
+    void testFastPathIgnoresHistory() {
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        LocalDateTime now = LocalDateTime.now();
+
+        FraudCheckResult result = fraudSystem.checkForFraudFastPath(new Transaction(5000, now, "USA"),
+                new ArrayList<>());
+
+        assertFalse(result.isFraudulent);
+        assertFalse(result.isBlocked);
+        assertEquals(0, result.riskScore);
+        assertTrue(result.degraded);
+    }
+
+    // Sin historial, el camino rápido y el completo aplican exactamente las mismas reglas
+    @Test
+    void testFastPathMatchesFullCheckWithoutHistory() {
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        LocalDateTime now = LocalDateTime.now();
+        for (double amount : new double[]{100, 10000, 10000.01, 50000}) {
+            for (String location : new String[]{"USA", "HighRisk"}) {
+                Transaction transaction = new Transaction(amount, now, location);
+                FraudCheckResult fast = fraudSystem.checkForFraudFastPath(transaction, List.of("HighRisk"));
+                FraudCheckResult full = fraudSystem.checkForFraud(transaction, new ArrayList<>(), List.of("HighRisk"));
+
+                assertEquals(full.isFraudulent, fast.isFraudulent);
+                assertEquals(full.isBlocked, fast.isBlocked);
+                assertEquals(full.verificationRequired, fast.verificationRequired);
+                assertEquals(full.riskScore, fast.riskScore);
+                assertTrue(fast.degraded);
+                assertFalse(full.degraded);
+            }
+        }
+    }
+
+    @Test
+    void testInvalidLimitsAreRejected() {
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        assertThrows(IllegalArgumentException.class,
+                () -> new FraudAdmissionController(fraudSystem, TARGET_NANOS, 100, 1, 64, 0.9));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FraudAdmissionController(fraudSystem, TARGET_NANOS, 4, 1, 64, 1.5));
+    }
+}
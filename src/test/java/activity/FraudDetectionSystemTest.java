@@ -190,4 +190,16 @@ class FraudDetectionSystemTest {
         assertFalse(result.verificationRequired);
     }
 
+    @Test
+    void testUpdatedRulesApplyToNextCheck() {
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        fraudSystem.updateRules(new FraudDetectionSystem.FraudRules(1000, 10, 60, 30));
+        Transaction currentTransaction = new Transaction(5000, LocalDateTime.now(), "USA");
+
+        FraudCheckResult result = fraudSystem.checkForFraud(currentTransaction, new ArrayList<>(), new ArrayList<>());
+
+        assertTrue(result.isFraudulent);
+        assertEquals(50, result.riskScore);
+    }
+
 }
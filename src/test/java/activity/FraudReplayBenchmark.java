@@ -0,0 +1,59 @@
+package activity;
+
+import activity.FraudDetectionSystem.FraudRules;
+import activity.FraudReplay.Format;
+import activity.FraudReplay.ReplayReport;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * End-to-end throughput of {@link FraudReplay} on a generated binary file, with the projected time for
+ * 100M records. Not part of the test suite; run it with
+ * {@code java -cp target/classes:target/test-classes activity.FraudReplayBenchmark [records] [partitions]}.
+ */
+public class FraudReplayBenchmark {
+    private static final int ACCOUNTS = 1_000_000;
+    private static final long TARGET_RECORDS = 100_000_000L;
+    private static final String[] LOCATIONS = {"USA", "France", "Brazil", "Japan", "HighRisk"};
+
+    public static void main(String[] args) throws IOException {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int partitions = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Path file = Files.createTempFile("fraud-replay", ".bin");
+        try {
+            write(file, records);
+            FraudReplay replay = new FraudReplay(FraudRules.DEFAULT, List.of("HighRisk"), partitions);
+            replay.replay(file, Format.BINARY); // Calentamiento
+            ReplayReport report = replay.replay(file, Format.BINARY);
+
+            System.out.println(report);
+            System.out.printf("%,d records, %d partitions: %.1f s; projected for %,d records: %.1f min%n",
+                    records, partitions, report.elapsedNanos / 1e9, TARGET_RECORDS,
+                    TARGET_RECORDS / report.eventsPerSecond() / 60);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Registros en orden temporal, unos 20 por segundo simulado, repartidos entre las cuentas
+    private static void write(Path file, int records) throws IOException {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 10, 1, 0, 0);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            for (int i = 0; i < records; i++) {
+                double amount = random.nextInt(100) == 0 ? 15000 : 10 + random.nextInt(2000);
+                String location = LOCATIONS[random.nextInt(100) == 0 ? 4 : random.nextInt(4)];
+                FraudReplay.writeBinaryRecord(out, "acct" + random.nextInt(ACCOUNTS), start.plusSeconds(i / 20),
+                        amount, location, amount > 10000);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package activity;
+
+import activity.FraudDetectionSystem.FraudRules;
+import activity.FraudReplay.Format;
+import activity.FraudReplay.ReplayReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FraudReplayTest {
+
+    private static final List<String> CSV_LINES = List.of(
+            "account,timestamp,amount,location,label",
+            "A,2024-10-01T10:00:00,500,USA,0",
+            "B,2024-10-01T10:01:00,15000,USA,1",     // monto alto, detectado
+            "A,2024-10-01T10:05:00,300,France,1",    // cambio de ubicación, detectado
+            "C,2024-10-01T10:06:00,200,USA,1",       // fraude no detectado
+            "C,2024-10-01T11:30:00,200,Brazil,0",    // fuera de la ventana de 30 minutos
+            "D,2024-10-01T11:31:00,100,HighRisk,0"); // lista negra, falso positivo
+
+    @TempDir
+    Path tempDir;
+
+    // 1. Prueba de reproducción de un CSV con reglas por defecto
+    @Test
+    void testReplayCsvWithDefaultRules() throws IOException {
+        Path file = tempDir.resolve("transactions.csv");
+        Files.write(file, CSV_LINES);
+
+        ReplayReport report = new FraudReplay(FraudRules.DEFAULT, List.of("HighRisk"), 3).replay(file, Format.CSV);
+
+        assertEquals(6, report.processed());
+        assertEquals(2, report.truePositives);
+        assertEquals(1, report.falsePositives);
+        assertEquals(1, report.falseNegatives);
+        assertEquals(2, report.trueNegatives);
+        assertEquals(2.0 / 3, report.precision(), 1e-9);
+        assertEquals(2.0 / 3, report.recall(), 1e-9);
+        assertTrue(report.eventsPerSecond() > 0);
+    }
+
+    // 2. Prueba de umbrales configurables
+    @Test
+    void testReplayWithCustomThresholds() throws IOException {
+        Path file = tempDir.resolve("transactions.csv");
+        Files.write(file, CSV_LINES);
+
+        // Con un umbral de monto mayor, la transacción de 15000 ya no se detecta
+        FraudRules rules = new FraudRules(20000, 10, 60, 30);
+        ReplayReport report = new FraudReplay(rules, List.of("HighRisk"), 2).replay(file, Format.CSV);
+
+        assertEquals(1, report.truePositives);
+        assertEquals(2, report.falseNegatives);
+    }
+
+    // 3. Prueba de historial por cuenta: transacciones de otras cuentas no cuentan
+    @Test
+    void testHistoryIsKeptPerAccount() throws IOException {
+        Path file = tempDir.resolve("burst.csv");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lines.add("acct" + i + ",2024-10-01T10:00:00,100,USA,0");
+        }
+        lines.add("acct0,2024-10-01T10:10:00,100,USA,0");
+        Files.write(file, lines);
+
+        ReplayReport report = new FraudReplay(FraudRules.DEFAULT, List.of(), 4).replay(file, Format.CSV);
+
+        assertEquals(21, report.trueNegatives);
+        assertEquals(0, report.falsePositives);
+    }
+
+    // 4. Prueba de que el formato binario produce el mismo resultado que el CSV
+    @Test
+    void testReplayBinaryMatchesCsv() throws IOException {
+        Path csv = tempDir.resolve("transactions.csv");
+        Files.write(csv, CSV_LINES);
+        Path binary = tempDir.resolve("transactions.bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(binary)))) {
+            for (String line : CSV_LINES.subList(1, CSV_LINES.size())) {
+                String[] f = line.split(",");
+                FraudReplay.writeBinaryRecord(out, f[0], LocalDateTime.parse(f[1]), Double.parseDouble(f[2]),
+                        f[3], f[4].equals("1"));
+            }
+        }
+
+        FraudReplay replay = new FraudReplay(FraudRules.DEFAULT, List.of("HighRisk"), 2);
+        ReplayReport fromCsv = replay.replay(csv, Format.CSV);
+        ReplayReport fromBinary = replay.replay(binary, Format.BINARY);
+
+        assertEquals(fromCsv.truePositives, fromBinary.truePositives);
+        assertEquals(fromCsv.falsePositives, fromBinary.falsePositives);
+        assertEquals(fromCsv.falseNegatives, fromBinary.falseNegatives);
+        assertEquals(fromCsv.trueNegatives, fromBinary.trueNegatives);
+    }
+
+    // 5. Prueba de que un registro fuera de orden se cuenta y no se evalúa
+    @Test
+    void testOutOfOrderRecordsAreCountedNotScored() throws IOException {
+        Path file = tempDir.resolve("unordered.csv");
+        Files.write(file, List.of(
+                "A,2024-10-01T10:00:00,100,USA,0",
+                "A,2024-10-01T10:20:00,100,USA,0",
+                "A,2024-10-01T09:00:00,100,France,1", // retrocede una hora
+                "B,2024-10-01T09:00:00,100,USA,0",    // otra cuenta, no es una regresión
+                "A,2024-10-01T10:25:00,100,USA,0"));
+
+        ReplayReport report = new FraudReplay(FraudRules.DEFAULT, List.of(), 2).replay(file, Format.CSV);
+
+        assertEquals(1, report.outOfOrder);
+        assertEquals(4, report.processed());
+        assertEquals(4, report.trueNegatives);
+        assertEquals(0, report.falseNegatives);
+    }
+
+    @Test
+    void testMalformedLineIsRejected() throws IOException {
+        Path file = tempDir.resolve("bad.csv");
+        Files.write(file, List.of("A,2024-10-01T10:00:00,500"));
+
+        FraudReplay replay = new FraudReplay(FraudRules.DEFAULT, List.of(), 1);
+        assertThrows(IllegalArgumentException.class, () -> replay.replay(file, Format.CSV));
+    }
+}
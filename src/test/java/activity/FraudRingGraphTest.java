@@ -0,0 +1,141 @@
+package activity;
+
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FraudRingGraphTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 10, 1, 10, 0);
+
+    // 1. Prueba de conteo de cuentas distintas por ubicación dentro de la ventana
+    @Test
+    void testAccountsAtLocation() {
+        FraudRingGraph graph = new FraudRingGraph(30);
+        graph.record("A", new Transaction(100, START, "Lagos"));
+        graph.record("B", new Transaction(100, START.plusMinutes(2), "Lagos"));
+        graph.record("A", new Transaction(100, START.plusMinutes(3), "Lagos"));
+        graph.record("C", new Transaction(100, START.plusMinutes(4), "Paris"));
+
+        assertEquals(2, graph.accountsAtLocation("Lagos", START.plusMinutes(4), 10));
+        assertEquals(1, graph.accountsAtLocation("Lagos", START.plusMinutes(4), 2)); // Sólo A a los 3 minutos
+        assertEquals(1, graph.accountsAtLocation("Paris", START.plusMinutes(4), 10));
+        assertEquals(0, graph.accountsAtLocation("Tokyo", START.plusMinutes(4), 10));
+        assertEquals(1, graph.locationsOfAccount("A", START.plusMinutes(4), 10));
+    }
+
+    // 2. Prueba de desalojo: la memoria depende de la ventana
+    @Test
+    void testEdgesAndNodesAreEvicted() {
+        FraudRingGraph graph = new FraudRingGraph(10);
+        for (int i = 0; i < 5000; i++) {
+            graph.record("acct" + i, new Transaction(100, START.plusSeconds(i * 6L), "loc" + (i % 50)));
+        }
+
+        // 10 minutos a una transacción cada 6 segundos
+        assertTrue(graph.edgeCount() <= 101);
+        assertTrue(graph.accountCount() <= 101);
+        assertEquals(50, graph.locationCount());
+
+        graph.record("late", new Transaction(100, START.plusDays(1), "elsewhere"));
+        assertEquals(1, graph.edgeCount());
+        assertEquals(1, graph.accountCount());
+        assertEquals(1, graph.locationCount());
+    }
+
+    // 3. Prueba de la señal de riesgo en el sistema de fraude
+    @Test
+    void testRingSignalFlagsCoordinatedAccounts() {
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        FraudRingGraph graph = new FraudRingGraph(60);
+        List<Transaction> noHistory = new ArrayList<>();
+        List<String> blacklistedLocations = new ArrayList<>();
+
+        FraudCheckResult result = null;
+        for (int i = 0; i < 5; i++) {
+            Transaction transaction = new Transaction(200, START.plusMinutes(i), "NewCity");
+            result = fraudSystem.checkForFraud("acct" + i, transaction, noHistory, blacklistedLocations, graph);
+            if (i < 4) {
+                assertFalse(result.isFraudulent);
+                assertEquals(0, result.riskScore);
+            }
+        }
+
+        // La quinta cuenta distinta en 10 minutos activa la señal
+        assertTrue(result.isFraudulent);
+        assertTrue(result.verificationRequired);
+        assertEquals(20, result.riskScore);
+    }
+
+    @Test
+    void testInvalidWindowIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new FraudRingGraph(0));
+    }
+
+    // 4. Prueba de que un grafo más corto que la ventana de las reglas no cuenta de menos en silencio
+    @Test
+    void testGraphShorterThanRuleWindowIsRejected() {
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        FraudRingGraph graph = new FraudRingGraph(5);
+        Transaction transaction = new Transaction(200, START, "NewCity");
+
+        assertThrows(IllegalArgumentException.class, () -> fraudSystem.checkForFraud("acct", transaction,
+                new ArrayList<>(), new ArrayList<>(), graph));
+        assertThrows(IllegalArgumentException.class, () -> graph.accountsAtLocation("NewCity", START, 10));
+        assertEquals(0, graph.edgeCount()); // Rechazada antes de registrar la arista
+        assertEquals(5, graph.getWindowMinutes());
+    }
+
+    // 5. Prueba de que las cuentas que pagan en su ubicación habitual no forman un anillo
+    @Test
+    void testEstablishedAccountsAreNotFlagged() {
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        FraudRingGraph graph = new FraudRingGraph(60);
+        List<String> blacklistedLocations = new ArrayList<>();
+
+        FraudCheckResult result = null;
+        for (int i = 0; i < 8; i++) {
+            List<Transaction> history = new ArrayList<>();
+            history.add(new Transaction(50, START.minusDays(1), "HomeTown"));
+            Transaction transaction = new Transaction(200, START.plusMinutes(i), "HomeTown");
+            result = fraudSystem.checkForFraud("local" + i, transaction, history, blacklistedLocations, graph);
+            assertFalse(result.isFraudulent);
+        }
+        assertEquals(8, graph.accountsAtLocation("HomeTown", START.plusMinutes(7), 10));
+        assertEquals(0, graph.arrivalsAtLocation("HomeTown", START.plusMinutes(7), 10));
+
+        // Sin historial, el grafo decide con la última ubicación que conoce de la cuenta
+        graph.record("commuter", new Transaction(10, START.plusMinutes(8), "Office"));
+        graph.record("commuter", new Transaction(10, START.plusMinutes(9), "Office"));
+        assertEquals(1, graph.arrivalsAtLocation("Office", START.plusMinutes(9), 10));
+        assertEquals(0, graph.arrivalsAtLocation("Office", START.plusMinutes(9), 1)); // La segunda no es llegada
+        assertEquals(0, result.riskScore);
+    }
+
+    // 6. Prueba de que una transacción que llega tarde sigue contando dentro de la ventana
+    @Test
+    void testLateTransactionIsCounted() {
+        FraudRingGraph graph = new FraudRingGraph(30);
+        LocalDateTime hundred = START.plusMinutes(100);
+        graph.record("A", new Transaction(100, hundred, "L"));
+        graph.record("B", new Transaction(100, START.plusMinutes(80), "L"));
+
+        assertEquals(1, graph.accountsAtLocation("L", hundred, 10)); // Sólo A; B quedó fuera de los 10 minutos
+        assertEquals(2, graph.accountsAtLocation("L", hundred, 30));
+
+        // Una arista tardía anterior a la ventana se descarta
+        graph.record("C", new Transaction(100, START, "L"));
+        assertEquals(2, graph.edgeCount());
+        assertEquals(2, graph.accountsAtLocation("L", hundred, 30));
+
+        // Una arista tardía dentro de la consulta no queda oculta tras una más reciente fuera de ella
+        graph.record("D", new Transaction(100, START.plusMinutes(95), "L"));
+        assertEquals(2, graph.accountsAtLocation("L", hundred, 10));
+    }
+}
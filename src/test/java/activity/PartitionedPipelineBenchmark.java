@@ -0,0 +1,64 @@
+package activity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Booking-to-fraud throughput of {@link EnginePipeline} as the number of partitions per stage grows. Not part
+ * of the test suite; run it with
+ * {@code java -cp target/classes:target/test-classes activity.PartitionedPipelineBenchmark [bookings]}.
+ */
+public class PartitionedPipelineBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int PRODUCERS = 2;
+
+    public static void main(String[] args) throws Exception {
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Una ronda de calentamiento sin medir
+        run(1, bookings / 4);
+        double baseline = 0;
+        for (int partitions = 1; partitions <= Math.max(1, cores / 2); partitions *= 2) {
+            double perSecond = run(partitions, bookings);
+            if (partitions == 1) {
+                baseline = perSecond;
+            }
+            System.out.printf("%2d partitions/stage: %,12.0f bookings/s  (x%.2f)%n", partitions, perSecond,
+                    perSecond / baseline);
+        }
+    }
+
+    private static double run(int partitions, int bookings) throws InterruptedException {
+        LongAdder scored = new LongAdder();
+        EnginePipeline pipeline = new EnginePipeline(partitions, partitions, 1, new FlightBookingSystem(),
+                new FraudDetectionSystem(), new SmartEnergyManagementSystem(), List.of("HighRisk"),
+                outcome -> scored.increment(), (buildingId, result) -> { });
+        pipeline.start();
+        LocalDateTime start = LocalDateTime.of(2024, 10, 1, 0, 0);
+        LocalDateTime departure = start.plusDays(30);
+
+        long begin = System.nanoTime();
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers[p] = new Thread(() -> {
+                for (int i = producer; i < bookings; i += PRODUCERS) {
+                    String account = "A" + (i % ACCOUNTS);
+                    pipeline.submitBooking(new EnginePipeline.BookingRequest("B" + i, account, "USA", 1 + i % 5,
+                            start.plusSeconds(i), 100, 100, 50, departure, 0));
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        pipeline.close();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        if (scored.sum() != bookings) {
+            throw new IllegalStateException("Expected " + bookings + " scored payments, got " + scored.sum());
+        }
+        return bookings / seconds;
+    }
+}
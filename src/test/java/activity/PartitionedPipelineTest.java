@@ -0,0 +1,267 @@
+package activity;
+
+import activity.FraudDetectionSystem.FraudCheckResult;
+import activity.FraudDetectionSystem.Transaction;
+import activity.SmartEnergyManagementSystem.EnergyManagementResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedPipelineTest {
+
+    // 1. Prueba del buffer SPSC: orden FIFO, capacidad y vuelta completa
+    @Test
+    void testSpscRingBuffer() {
+        PartitionedPipeline.SpscRingBuffer<Integer> ring = new PartitionedPipeline.SpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(ring.offer(round * 4 + i));
+            }
+            assertFalse(ring.offer(-1));
+            assertEquals(4, ring.drain(drained, 10));
+        }
+        assertEquals(0, ring.drain(drained, 10));
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i, drained.get(i));
+        }
+    }
+
+    // 2. Prueba del buffer MPSC con varios productores concurrentes; todos esperan como los trabajadores
+    // del pipeline para no agotar el procesador en máquinas con pocos núcleos
+    @Test
+    @Timeout(30)
+    void testMpscRingBufferWithConcurrentProducers() throws Exception {
+        PartitionedPipeline.MpscRingBuffer<int[]> ring = new PartitionedPipeline.MpscRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int idle = 0;
+                    while (!ring.offer(new int[]{producer, i})) {
+                        idle = PartitionedPipeline.idle(idle);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        int[] next = new int[producers];
+        List<int[]> batch = new ArrayList<>();
+        int received = 0;
+        int idle = 0;
+        while (received < producers * perProducer) {
+            batch.clear();
+            int drained = ring.drain(batch, 32);
+            received += drained;
+            idle = drained == 0 ? PartitionedPipeline.idle(idle) : 0;
+            for (int[] item : batch) {
+                assertEquals(next[item[0]]++, item[1]); // Cada productor conserva su orden
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, ring.drain(batch, 32));
+    }
+
+    // 3. Prueba de que se procesa todo y se conserva el orden por clave entre etapas
+    @Test
+    void testPerKeyOrderingAcrossStages() {
+        PartitionedPipeline pipeline = new PartitionedPipeline(16, 8);
+        Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+        PartitionedPipeline.Stage<int[], Void> sink = pipeline.addStage("sink", 3, item -> item[0],
+                () -> (batch, emitter) -> {
+                    for (int[] item : batch) {
+                        seen.computeIfAbsent(item[0], k -> new ArrayList<>()).add(item[1]);
+                    }
+                }, null);
+        PartitionedPipeline.Stage<int[], int[]> source = pipeline.addStage("source", 2, item -> item[0],
+                () -> (batch, emitter) -> {
+                    for (int[] item : batch) {
+                        emitter.emit(new int[]{item[0], item[1] * 2});
+                    }
+                }, sink);
+        pipeline.start();
+
+        int keys = 17;
+        int perKey = 2_000;
+        for (int i = 0; i < perKey; i++) {
+            for (int key = 0; key < keys; key++) {
+                source.submit(new int[]{key, i});
+            }
+        }
+        pipeline.close();
+
+        assertEquals(keys, seen.size());
+        for (List<Integer> values : seen.values()) {
+            assertEquals(perKey, values.size());
+            for (int i = 0; i < perKey; i++) {
+                assertEquals(i * 2, values.get(i));
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> source.submit(new int[]{0, 0}));
+    }
+
+    // 4. Prueba de que un fallo del handler se informa al cerrar
+    @Test
+    void testHandlerFailureIsReportedOnClose() {
+        PartitionedPipeline pipeline = new PartitionedPipeline(8, 4);
+        PartitionedPipeline.Stage<String, Void> stage = pipeline.addStage("failing", 1, String::hashCode,
+                () -> (batch, emitter) -> {
+                    throw new IllegalArgumentException("bad item");
+                }, null);
+        pipeline.start();
+        stage.submit("x");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, pipeline::close);
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+    }
+
+    @Test
+    void testInvalidConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedPipeline(100, 8));
+        PartitionedPipeline pipeline = new PartitionedPipeline(8, 4);
+        assertThrows(IllegalArgumentException.class,
+                () -> pipeline.addStage("empty", 0, Object::hashCode, () -> (batch, emitter) -> { }, null));
+        pipeline.start();
+        assertThrows(IllegalStateException.class,
+                () -> pipeline.addStage("late", 1, Object::hashCode, () -> (batch, emitter) -> { }, null));
+        pipeline.close();
+    }
+
+    // 5. Prueba de extremo a extremo con los tres motores
+    @Test
+    void testEnginePipelineMatchesSequentialEngines() {
+        FlightBookingSystem bookingSystem = new FlightBookingSystem();
+        FraudDetectionSystem fraudSystem = new FraudDetectionSystem();
+        SmartEnergyManagementSystem energySystem = new SmartEnergyManagementSystem();
+        List<String> blacklist = List.of("HighRisk");
+        Map<String, List<EnginePipeline.PaymentOutcome>> payments = new ConcurrentHashMap<>();
+        List<String> buildings = new CopyOnWriteArrayList<>();
+        EnginePipeline pipeline = new EnginePipeline(2, 3, 2, bookingSystem, fraudSystem, energySystem, blacklist,
+                outcome -> payments.computeIfAbsent(outcome.accountId, k -> new ArrayList<>()).add(outcome),
+                (buildingId, result) -> buildings.add(buildingId));
+        pipeline.start();
+
+        LocalDateTime start = LocalDateTime.of(2024, 10, 1, 10, 0);
+        LocalDateTime departure = start.plusDays(10);
+        int accounts = 8;
+        int bookingsPerAccount = 20;
+        for (int i = 0; i < bookingsPerAccount; i++) {
+            for (int a = 0; a < accounts; a++) {
+                String location = a == 0 && i == 5 ? "HighRisk" : "USA";
+                pipeline.submitBooking(new EnginePipeline.BookingRequest("B" + a + "-" + i, "A" + a, location,
+                        1 + a % 5, start.plusMinutes(i), 100, 100 + a, 50, departure, 0));
+            }
+        }
+        Map<String, Integer> devices = new HashMap<>();
+        devices.put("Heating", 1);
+        devices.put("Lights", 2);
+        for (int b = 0; b < 10; b++) {
+            pipeline.submitBuildingTick(new EnginePipeline.BuildingTick("Building" + b, 0.1, 0.2,
+                    new HashMap<>(devices), start, 20, new double[]{19, 22}, 100, 10, new ArrayList<>()));
+        }
+        pipeline.close();
+
+        assertEquals(10, buildings.size());
+        assertEquals(accounts, payments.size());
+        for (int a = 0; a < accounts; a++) {
+            List<EnginePipeline.PaymentOutcome> outcomes = payments.get("A" + a);
+            assertEquals(bookingsPerAccount, outcomes.size());
+            // Mismo resultado que pasar las transacciones de la cuenta en orden por el motor
+            List<Transaction> history = new ArrayList<>();
+            for (int i = 0; i < bookingsPerAccount; i++) {
+                EnginePipeline.PaymentOutcome outcome = outcomes.get(i);
+                assertEquals("B" + a + "-" + i, outcome.bookingId);
+                FraudCheckResult expected = fraudSystem.checkForFraud(outcome.payment, history, blacklist);
+                history.add(outcome.payment);
+                assertEquals(expected.riskScore, outcome.fraud.riskScore);
+                assertEquals(expected.isBlocked, outcome.fraud.isBlocked);
+            }
+        }
+        assertTrue(payments.get("A0").get(5).fraud.isBlocked);
+        assertTrue(payments.get("A1").get(15).fraud.isBlocked); // Más de 10 pagos en una hora
+    }
+
+    // 6. Prueba de que el barrido periódico descarta las cuentas inactivas de la etapa de fraude
+    @Test
+    void testFraudStageSweepsIdleAccounts() {
+        EnginePipeline.FraudHandler handler =
+                new EnginePipeline.FraudHandler(new FraudDetectionSystem(), List.of(), outcome -> { });
+        LocalDateTime start = LocalDateTime.of(2024, 10, 1, 0, 0);
+        List<EnginePipeline.PaymentOutcome> batch = new ArrayList<>();
+        // Una cuenta nueva por segundo durante unas 18 horas; ninguna vuelve a pagar
+        for (int i = 0; i < EnginePipeline.SWEEP_INTERVAL; i++) {
+            batch.add(new EnginePipeline.PaymentOutcome("B" + i, "A" + i, null,
+                    new Transaction(100, start.plusSeconds(i), "USA")));
+        }
+
+        handler.onBatch(batch, item -> { });
+
+        // Sólo quedan las cuentas con pagos dentro de la ventana de 60 minutos
+        assertTrue(handler.accountCount() <= 61 * 60);
+        assertTrue(handler.accountCount() > 0);
+    }
+
+    // 7. Prueba de que las reservas rechazadas también llegan al sink, sin análisis de fraude
+    @Test
+    void testRejectedBookingsReachTheSink() {
+        List<EnginePipeline.PaymentOutcome> outcomes = new CopyOnWriteArrayList<>();
+        EnginePipeline pipeline = new EnginePipeline(1, 1, 1, new FlightBookingSystem(), new FraudDetectionSystem(),
+                new SmartEnergyManagementSystem(), List.of(), outcomes::add, (buildingId, result) -> { });
+        pipeline.start();
+
+        LocalDateTime start = LocalDateTime.of(2024, 10, 1, 10, 0);
+        for (int i = 0; i < 4; i++) {
+            int passengers = i % 2 == 0 ? 2 : 500; // Las impares piden más asientos de los disponibles
+            pipeline.submitBooking(new EnginePipeline.BookingRequest("B" + i, "A", "USA", passengers,
+                    start.plusMinutes(i), 100, 100, 50, start.plusDays(10), 0));
+        }
+        pipeline.close();
+
+        assertEquals(4, outcomes.size());
+        for (int i = 0; i < 4; i++) {
+            EnginePipeline.PaymentOutcome outcome = outcomes.get(i);
+            assertEquals("B" + i, outcome.bookingId);
+            assertEquals(i % 2 == 0, outcome.booking.confirmation);
+            assertEquals(i % 2 == 0, outcome.payment != null);
+            assertEquals(i % 2 == 0, outcome.fraud != null);
+        }
+    }
+
+    // 8. Prueba de la publicación por lotes en el buffer SPSC
+    @Test
+    void testSpscRingBufferBatchOffer() {
+        PartitionedPipeline.SpscRingBuffer<Integer> buffer = new PartitionedPipeline.SpscRingBuffer<>(8);
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(i);
+        }
+        assertTrue(buffer.offer(-1));
+
+        assertEquals(7, buffer.offer(items, 0)); // Sólo cabe hasta completar la capacidad
+        assertEquals(0, buffer.offer(items, 7));
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(8, buffer.drain(drained, 16));
+        assertEquals(3, buffer.offer(items, 7));
+        assertEquals(3, buffer.drain(drained, 16));
+
+        List<Integer> expected = new ArrayList<>(List.of(-1));
+        expected.addAll(items);
+        assertEquals(expected, drained);
+    }
+}
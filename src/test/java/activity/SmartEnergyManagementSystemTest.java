@@ -230,5 +230,19 @@ import static org.junit.jupiter.api.Assertions.*;
         assertTrue(result.energySavingMode);
         assertFalse(result.deviceStatus.get("Lights")); 
     }
-    
+
+    @Test
+    void testUpdatedNightModeExemptions() {
+        SmartEnergyManagementSystem energySystem = new SmartEnergyManagementSystem();
+        energySystem.updateRules(new SmartEnergyManagementSystem.EnergyRules(23, 6, Set.of("Router")));
+        Map<String, Integer> devicePriorities = new HashMap<>();
+        devicePriorities.put("Security", 1);
+        devicePriorities.put("Router", 2);
+
+        EnergyManagementResult result = energySystem.manageEnergy(0.15, 0.20, devicePriorities, LocalDateTime.of(2024, 10, 1, 23, 30), 21.0, new double[]{20.0, 24.0}, 50, 30, new ArrayList<>());
+
+        assertFalse(result.deviceStatus.get("Security"));
+        assertTrue(result.deviceStatus.get("Router"));
+    }
+
 }